@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/** Hands log statements over to a single background thread which writes them to a 
+ *  {@link ConsoleWriter}. Threads that log no longer wait for console I/O.
+ *  
+ *  Statements are queued in a bounded ring buffer whose slots are allocated once. 
+ *  A producer claims a sequence number with a single atomic increment, copies its 
+ *  statement into the slot and publishes the slot by storing the sequence number. 
+ *  No locks are taken on this path. If the buffer is full the producer waits until 
+ *  the writer thread has freed a slot; statements are never dropped.  
+ *  
+ *  When {@link #close()} is called (on JVM shutdown), all queued statements are 
+ *  written before the writer thread terminates. Statements logged after that are written directly by the 
+ *  calling thread. 
+ *  
+ *  With <code>deferFormatting=true</code> parameterized messages are not formatted by the logging 
+ *  thread. It only stores the pattern and the arguments in the slot, the writer thread formats the 
+ *  message. Arguments that may change after the call are captured first, see 
+ *  {@link MessageFormatterEx#snapshot(Object)}. */
+final class AsyncConsoleWriter implements Runnable {
+
+    /** Upper limit for the number of slots in the ring buffer */
+    private static final int MAX_CAPACITY = 1 << 20;
+    
+    /** Slots keep their message buffer for reuse unless a statement made it grow beyond 
+     *  this number of characters. */
+    private static final int MAX_RETAINED_MESSAGE_LENGTH = 4096;
+    
+    private static final long IDLE_PARK_NANOS = 10000000L;   // 10ms 
+    private static final long FULL_PARK_NANOS = 50000L;      // 50us
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;  
+    
+    private static final class Slot {
+        StringBuilder message = new StringBuilder(128);
+        ConsoleLogger logger; 
+        int level;
+        long millis; 
+        long threadId; 
+        ContextMap context; 
+        Throwable throwable;
+        
+        /** Pattern and arguments of a message that still has to be formatted (argCount -1: message is formatted) */
+        String pattern; 
+        Object[] args = new Object[2]; 
+        int argCount = -1; 
+    }
+    
+    private final Slot[] slots; 
+    private final int mask;
+    
+    /** Sequence number of the statement that is ready to be written from each slot */
+    private final AtomicLongArray published; 
+    
+    /** Next sequence number to be handed out to a producer */
+    private final AtomicLong claimed = new AtomicLong(); 
+    
+    /** Next sequence number to be written by the writer thread. All slots holding 
+     *  lower sequence numbers may be reused. */
+    private final AtomicLong consumed = new AtomicLong(); 
+    
+    private final ConsoleWriter writer; 
+    private final Thread thread;
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+    private volatile boolean terminated;
+    
+    /** True if messages are formatted by the writer thread */
+    final boolean deferFormatting; 
+    
+    AsyncConsoleWriter(ConsoleWriter writer, int capacity, boolean deferFormatting) {
+    	this.writer = writer;
+    	this.deferFormatting = deferFormatting;
+    	int size = Math.min(MAX_CAPACITY, Integer.highestOneBit(Math.max(2, capacity) - 1) << 1); //next power of two
+    	slots = new Slot[size]; 
+    	published = new AtomicLongArray(size);
+    	for (int i=0;i<size;i++) {
+    		slots[i] = new Slot();
+    		published.set(i, -1);
+    	}
+    	mask = size - 1;
+    	thread = new Thread(this, "ConsoleLogger-writer");
+    	thread.setDaemon(true);
+    }
+    
+    void start() {
+    	thread.start();
+    }
+    
+    /** Queues a statement for output. 
+     *  @return false if the writer has already terminated and the caller has to write 
+     *  the statement itself.  */
+    boolean publish(ConsoleLogger logger, int level, long millis, long threadId, CharSequence message, Throwable t) {
+    	if (!running()) {
+    		return false; 
+    	}
+    	long seq = claim(); 
+    	Slot slot = fill(seq, logger, level, millis, threadId, t); 
+    	slot.message.setLength(0);
+    	slot.message.append(message);
+    	commit(seq);
+    	return true; 
+    }
+    
+    /** Queues a message with up to two arguments, which is formatted by the writer thread.  
+     *  @return false if the writer has already terminated and the caller has to format and write 
+     *  the statement itself. */
+    boolean publish(ConsoleLogger logger, int level, long millis, long threadId, String pattern, Object arg1, Object arg2, 
+    		int argCount, Throwable t) {
+    	if (!running()) {
+    		return false; 
+    	}
+    	long seq = claim(); 
+    	Slot slot = fill(seq, logger, level, millis, threadId, t); 
+    	slot.pattern = pattern; 
+    	slot.args[0] = MessageFormatterEx.snapshot(arg1); 
+    	if (argCount > 1) {
+    		slot.args[1] = MessageFormatterEx.snapshot(arg2); 
+    	}
+    	slot.argCount = argCount; 
+    	commit(seq);
+    	return true; 
+    }
+    
+    /** Queues a message which is formatted by the writer thread. 
+     *  @return false if the writer has already terminated and the caller has to format and write 
+     *  the statement itself. */
+    boolean publish(ConsoleLogger logger, int level, long millis, long threadId, String pattern, Object[] args, 
+    		int argCount, Throwable t) {
+    	if (!running()) {
+    		return false; 
+    	}
+    	long seq = claim(); 
+    	Slot slot = fill(seq, logger, level, millis, threadId, t); 
+    	slot.pattern = pattern; 
+    	if (slot.args.length < argCount) {
+    		slot.args = new Object[argCount]; 
+    	}
+    	for (int i=0;i<argCount;i++) {
+    		slot.args[i] = MessageFormatterEx.snapshot(args[i]); 
+    	}
+    	slot.argCount = argCount; 
+    	commit(seq);
+    	return true; 
+    }
+    
+    /** Returns false if the writer thread has terminated or died, callers then write themselves */
+    private boolean running() {
+    	return !terminated && thread.isAlive(); 
+    }
+    
+    /** Claims a sequence number, waits until its slot is free */
+    private long claim() {
+    	long seq = claimed.getAndIncrement(); 
+    	int spins = 0; 
+    	while (seq - slots.length >= consumed.get()) { //ring buffer is full
+    		if (!running()) {
+    			synchronized (this) {
+    				drain();
+    			}
+    		} else if (++spins < 100) {
+    			Thread.yield();
+    		} else {
+    			LockSupport.parkNanos(this, FULL_PARK_NANOS);
+    		}
+    	}
+    	
+    	return seq; 
+    }
+    
+    private Slot fill(long seq, ConsoleLogger logger, int level, long millis, long threadId, Throwable t) {
+    	Slot slot = slots[(int) seq & mask]; 
+    	slot.logger = logger; 
+    	slot.level = level; 
+    	slot.millis = millis; 
+    	slot.threadId = threadId; 
+    	slot.context = writer.usesContext() ? ConsoleMDCAdapter.context() : null; //immutable, taken by the logging thread
+    	slot.throwable = t; 
+    	return slot; 
+    }
+    
+    /** Publishes the filled slot to the writer thread */
+    private void commit(long seq) {
+    	published.set((int) seq & mask, seq);
+    	
+    	if (sleeping) {
+    		LockSupport.unpark(thread);
+    	}
+    	if (closed) { //the writer thread may have missed this statement 
+    		synchronized (this) {
+    			if (terminated) {
+    				drain();
+    			}
+    		}
+    	}
+    }
+    
+    public void run() {
+    	try {
+    		while (!closed) {
+    			if (drain() == 0) {
+    				sleeping = true;
+    				if (!closed && published.get((int) consumed.get() & mask) != consumed.get()) {
+    					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+    				}
+    				sleeping = false;
+    			}
+    		}
+    	} finally { //also if the thread dies, producers then write the remaining statements themselves 
+    		closed = true; 
+    		synchronized (this) {
+    			try {
+    				drain();
+    			} finally {
+    				terminated = true;
+    			}
+    		}
+    	}
+    }
+    
+    /** Writes all statements that are ready, in sequence order. A statement that can't be written 
+     *  is reported and skipped, the writer thread must not die while producers wait for free slots.  
+     *  @return number of statements written */
+    private int drain() {
+    	int count = 0;
+    	long next = consumed.get(); 
+    	int index = (int) next & mask;
+    	while (published.get(index) == next) {
+    		Slot slot = slots[index];
+    		try {
+    			if (slot.argCount >= 0) { //formatted straight into the line buffer of the writer
+    				writer.append(slot.logger, slot.level, slot.millis, slot.threadId, slot.context, slot.pattern, slot.args, 
+    						slot.argCount, slot.throwable);
+    			} else {
+    				writer.append(slot.logger, slot.level, slot.millis, slot.threadId, slot.context, slot.message, slot.throwable);
+    			}
+    		} catch (Throwable ex) {
+    			report(ex); 
+    		}
+    		if (slot.argCount >= 0) {
+    			Arrays.fill(slot.args, 0, slot.argCount, null);
+    			slot.pattern = null; 
+    			slot.argCount = -1; 
+    		}
+    		slot.logger = null; 
+    		slot.context = null; 
+    		slot.throwable = null;
+    		if (slot.message.capacity() > MAX_RETAINED_MESSAGE_LENGTH) {
+    			slot.message = new StringBuilder(128);
+    		}
+    		consumed.lazySet(++next);
+    		index = (int) next & mask;
+    		count++;
+    	}
+    	try {
+    		writer.flushIfRequested(); //flushing once per batch is sufficient
+    	} catch (Throwable ex) {
+    		report(ex); 
+    	}
+    	return count;
+    }
+    
+    /** Reports a statement that could not be written. Only the class of the exception is shown, 
+     *  its message may be the cause of the failure. */
+    private static void report(Throwable ex) {
+    	System.err.println("Console logger can't write a log statement ("+ex.getClass().getName()+"). Continuing with the next statement.");
+    }
+    
+    /** Writes all queued statements and stops the writer thread. */
+    void close() {
+    	closed = true; 
+    	LockSupport.unpark(thread);
+    	try {
+    		thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+    	} catch (InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    	}
+    }
+    
+}
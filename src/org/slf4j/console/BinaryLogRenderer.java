@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Renders files written with <code>output=binary</code> in the console layout. 
+ *  
+ *  <pre>
+ *  java -cp consolelogger.jar:slf4j-api.jar org.slf4j.console.BinaryLogRenderer app.clog [more files]
+ *  </pre>
+ *  
+ *  The layout (time, width, group, stderr, collapse, ...) is configured like the console output, 
+ *  e.g. with <code>-Dorg.slf4j.console.time=true</code>. The lines are written to the console 
+ *  (<code>output=channel</code> may be used), log levels and rate limits are not applied again. */
+public final class BinaryLogRenderer {
+	
+	private final DataInputStream in; 
+	private final String source; 
+	private final ConsoleWriter writer; 
+	
+	private final List<ConsoleLogger> loggers = new ArrayList<ConsoleLogger>(); 
+	private final List<String> templates = new ArrayList<String>(); 
+	private long millis; 
+	private byte[] bytes = new byte[256]; 
+	
+	private BinaryLogRenderer(DataInputStream in, String source, ConsoleWriter writer) {
+		this.in = in; 
+		this.source = source; 
+		this.writer = writer; 
+	}
+	
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.err.println("Usage: java org.slf4j.console.BinaryLogRenderer <file> [<file> ...]");
+			System.exit(2);
+		}
+		if (!"channel".equalsIgnoreCase(System.getProperty(ConsoleLogger.KEY_OUTPUT))) {
+			System.setProperty(ConsoleLogger.KEY_OUTPUT, "console"); 
+		}
+		System.setProperty(ConsoleLogger.KEY_ASYNC, "false"); 
+		System.setProperty(ConsoleLogger.KEY_RELOAD_MILLIS, "-1"); 
+		ConsoleLogger.lazyInit(); 
+		//arguments were cut when they were logged, only the line limit is applied here
+		BoundedRenderer.configure(0, ConsoleLogger.CONFIG_PARAMS.getIntProperty(ConsoleLogger.KEY_MAX_LINE_LENGTH, 
+				BoundedRenderer.DEFAULT_MAX_LINE_LENGTH)); 
+		ConsoleWriter writer = ConsoleLogger.currentWriter(); 
+		int status = 0; 
+		for (String file : args) {
+			try {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 65536)); 
+				try {
+					if (!new BinaryLogRenderer(in, file, writer).render()) {
+						status = 1; 
+					}
+				} finally {
+					in.close(); 
+				}
+			} catch (IOException ex) {
+				writer.flushIfRequested(); 
+				System.err.println("Can't read "+file+" ("+ex+").");
+				status = 1; 
+			}
+		}
+		writer.close(); 
+		System.exit(status);
+	}
+	
+	/** Renders all statements of the file. 
+	 *  @return false if the file isn't complete or not a binary log file */
+	private boolean render() throws IOException {
+		int tag = in.read(); 
+		if (tag != BinaryLogWriter.MAGIC[0]) {
+			return fail("is not a binary log file"); 
+		}
+		try {
+			while (tag != -1) {
+				switch (tag) {
+				case 'C': 
+					readSessionHeader(); 
+					break; 
+				case BinaryLogWriter.LOGGER: 
+					loggers.add(new ConsoleLogger(readString())); 
+					break; 
+				case BinaryLogWriter.TEMPLATE: 
+					templates.add(readString()); 
+					break; 
+				case BinaryLogWriter.EVENT: 
+				case BinaryLogWriter.INLINE_EVENT: 
+					readEvent(tag == BinaryLogWriter.INLINE_EVENT); 
+					break; 
+				default: 
+					return fail("is corrupt (unknown record "+tag+")"); 
+				}
+				tag = in.read(); 
+			}
+		} catch (EOFException ex) {
+			return fail("ends with an incomplete statement"); 
+		} catch (IndexOutOfBoundsException ex) {
+			return fail("is corrupt (unknown logger or pattern)"); 
+		}
+		return true; 
+	}
+	
+	private boolean fail(String reason) {
+		writer.flushIfRequested(); 
+		System.err.println(source+" "+reason+".");
+		return false; 
+	}
+	
+	/** Reads the rest of the header (after the first byte), a new session starts */
+	private void readSessionHeader() throws IOException {
+		for (int i=1;i<BinaryLogWriter.MAGIC.length;i++) {
+			if (in.readByte() != BinaryLogWriter.MAGIC[i]) {
+				throw new IOException("not a binary log file"); 
+			}
+		}
+		int version = in.readUnsignedByte(); 
+		if (version != BinaryLogWriter.VERSION) {
+			throw new IOException("unsupported version "+version); 
+		}
+		millis = in.readLong(); 
+		loggers.clear(); 
+		templates.clear(); 
+	}
+	
+	private void readEvent(boolean inline) throws IOException {
+		int flags = in.readUnsignedByte(); 
+		millis += unzigzag(readVarlong()); 
+		ConsoleLogger logger = loggers.get(readVarint()); 
+		long threadId = readVarlong(); 
+		String pattern = inline ? readString() : templates.get(readVarint()); 
+		int argCount = readVarint() - 1; 
+		Object[] args = null; 
+		if (argCount > 0) {
+			args = new Object[argCount]; 
+			for (int i=0;i<argCount;i++) {
+				args[i] = readArgument(); 
+			}
+		}
+		Throwable t = (flags & BinaryLogWriter.THROWABLE_FLAG) != 0 ? new RenderedThrowable(readString()) : null; 
+		int level = flags & ~BinaryLogWriter.THROWABLE_FLAG; 
+		if (argCount < 0) {
+			writer.append(logger, level, millis, threadId, null, pattern, t); 
+		} else {
+			writer.append(logger, level, millis, threadId, null, pattern, args, argCount, t); 
+		}
+		writer.flushIfRequested(); 
+	}
+	
+	private Object readArgument() throws IOException {
+		int tag = in.readUnsignedByte(); 
+		switch (tag) {
+		case BinaryLogWriter.NULL: 
+			return null; 
+		case BinaryLogWriter.STRING: 
+			return readString(); 
+		case BinaryLogWriter.INT: 
+			return Integer.valueOf(unzigzag(readVarint())); 
+		case BinaryLogWriter.LONG: 
+			return Long.valueOf(unzigzag(readVarlong())); 
+		case BinaryLogWriter.SHORT: 
+			return Short.valueOf((short) unzigzag(readVarint())); 
+		case BinaryLogWriter.BYTE: 
+			return Byte.valueOf(in.readByte()); 
+		case BinaryLogWriter.TRUE: 
+			return Boolean.TRUE; 
+		case BinaryLogWriter.FALSE: 
+			return Boolean.FALSE; 
+		case BinaryLogWriter.CHAR: 
+			return Character.valueOf((char) readVarint()); 
+		case BinaryLogWriter.DOUBLE: 
+			return Double.valueOf(Double.longBitsToDouble(in.readLong())); 
+		case BinaryLogWriter.FLOAT: 
+			return Float.valueOf(Float.intBitsToFloat(in.readInt())); 
+		default: 
+			throw new IOException("unknown argument type "+tag); 
+		}
+	}
+	
+	private int readVarint() throws IOException {
+		return (int) readVarlong(); 
+	}
+	
+	private long readVarlong() throws IOException {
+		long n = 0; 
+		for (int shift=0;shift<64;shift+=7) {
+			int b = in.readUnsignedByte(); 
+			n |= (long) (b & 0x7F) << shift; 
+			if ((b & 0x80) == 0) {
+				return n; 
+			}
+		}
+		throw new IOException("malformed number"); 
+	}
+	
+	private static int unzigzag(int n) {
+		return (n >>> 1) ^ -(n & 1); 
+	}
+	
+	private static long unzigzag(long n) {
+		return (n >>> 1) ^ -(n & 1); 
+	}
+	
+	private String readString() throws IOException {
+		int length = readVarint(); 
+		if (length < 0) {
+			throw new IOException("malformed string"); 
+		}
+		if (bytes.length < length) {
+			bytes = new byte[Math.max(length, bytes.length * 2)]; 
+		}
+		in.readFully(bytes, 0, length); 
+		return new String(bytes, 0, length, StandardCharsets.UTF_8); 
+	}
+	
+	/** Stands in for the exception of a statement, of which only the stack trace is known */
+	private static final class RenderedThrowable extends Throwable {
+		private static final long serialVersionUID = 1L;
+		
+		private final String stackTrace; 
+		
+		RenderedThrowable(String stackTrace) {
+			super(null, null, false, false); 
+			this.stackTrace = stackTrace; 
+		}
+		
+		@Override
+		public void printStackTrace(PrintStream s) {
+			s.print(stackTrace); 
+		}
+		
+		@Override
+		public void printStackTrace(PrintWriter s) {
+			s.print(stackTrace); 
+		}
+	}
+}
@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/** Writes log statements to a file in a compact binary format instead of rendering them as text. 
+ *  Statements are written by the thread that logs them; {@link BinaryLogRenderer} turns the file 
+ *  into the usual console layout later. 
+ *  
+ *  <p>Format (numbers are big-endian, <i>varint</i> is an unsigned LEB128 number, <i>zigzag</i> a signed 
+ *  one, <i>string</i> a varint byte count followed by UTF-8 bytes):</p>
+ *  <pre>
+ *  file     := session*
+ *  session  := "CLOG" version:byte startMillis:long record*
+ *  record   := LOGGER name:string                     (ids are assigned in order, starting with 0) 
+ *            | TEMPLATE pattern:string                 (patterns with arguments only, ids as for loggers) 
+ *            | EVENT flags:byte deltaMillis:zigzag loggerId:varint threadId:varint 
+ *                    templateId:varint args [stackTrace:string]
+ *            | INLINE_EVENT (like EVENT, but pattern:string instead of templateId)
+ *  flags    := level | 0x80 if a stack trace follows 
+ *  args     := 0:varint (a message without arguments, not a pattern) | (count+1):varint arg*
+ *  arg      := NULL | STRING string | INT zigzag | LONG zigzag | SHORT zigzag | BYTE byte | TRUE | FALSE 
+ *            | CHAR varint | DOUBLE long | FLOAT int
+ *  </pre>
+ *  Arguments of other types (and strings longer than the argument length limit) are rendered when they 
+ *  are logged and written as strings. Appending to an existing file starts a new session. */
+final class BinaryLogWriter {
+	
+	static final byte[] MAGIC = { 'C', 'L', 'O', 'G' }; 
+	static final int VERSION = 1; 
+	
+	static final int LOGGER = 1; 
+	static final int TEMPLATE = 2; 
+	static final int EVENT = 3; 
+	static final int INLINE_EVENT = 4; 
+	
+	static final int THROWABLE_FLAG = 0x80; 
+	
+	static final int NULL = 0; 
+	static final int STRING = 1; 
+	static final int INT = 2; 
+	static final int LONG = 3; 
+	static final int SHORT = 4; 
+	static final int BYTE = 5; 
+	static final int TRUE = 6; 
+	static final int FALSE = 7; 
+	static final int CHAR = 8; 
+	static final int DOUBLE = 9; 
+	static final int FLOAT = 10; 
+	
+	/** Patterns beyond this number are written with each statement (e.g. if patterns with placeholders are 
+	 *  built at runtime) */
+	private static final int MAX_TEMPLATES = 65536; 
+	
+	private final File file; 
+	private final FileChannel channel; 
+	private ByteBuffer buf = ByteBuffer.allocate(65536); 
+	
+	private final IdentityHashMap<ConsoleLogger, Integer> loggerIds = new IdentityHashMap<ConsoleLogger, Integer>(); 
+	private final HashMap<String, Integer> templateIds = new HashMap<String, Integer>(); 
+	
+	private long lastMillis; 
+	
+	/** Set when anything was written since the last flush */
+	private boolean pending; 
+	
+	/** Statements are written out immediately (set by {@link #close()} or <code>flush=immediate</code>), 
+	 *  otherwise they are written by the flush timer or when the buffer is full */
+	private boolean immediate; 
+	
+	private boolean failed; 
+	
+	private final StringBuilder scratch = new StringBuilder(); 
+	
+	BinaryLogWriter(File file, boolean immediate) throws IOException {
+		this.file = file; 
+		this.immediate = immediate; 
+		channel = new FileOutputStream(file, true).getChannel(); 
+		lastMillis = System.currentTimeMillis(); 
+		buf.put(MAGIC).put((byte) VERSION).putLong(lastMillis); 
+	}
+	
+	/* Arguments and stack traces are rendered before the writer is locked: their toString() methods 
+	 * may log themselves, which must not write a record into the middle of another one. */
+	
+	/** Writes a statement with up to two arguments */
+	void write(ConsoleLogger logger, int level, long millis, long threadId, 
+			String pattern, Object arg1, Object arg2, int argCount, Throwable t) {
+		if (failed) {
+			return; 
+		}
+		arg1 = (argCount > 0) ? capture(arg1) : null; 
+		arg2 = (argCount > 1) ? capture(arg2) : null; 
+		String stackTrace = stackTrace(t); 
+		synchronized (this) {
+			writeHeader(logger, level, millis, threadId, pattern, argCount, t); 
+			putVarint(argCount + 1); 
+			if (argCount > 0) {
+				putArgument(arg1); 
+			}
+			if (argCount > 1) {
+				putArgument(arg2); 
+			}
+			writeStackTrace(stackTrace); 
+		}
+	}
+	
+	/** Writes a statement with an argument array */
+	void write(ConsoleLogger logger, int level, long millis, long threadId, 
+			String pattern, Object[] args, int argCount, Throwable t) {
+		if (failed) {
+			return; 
+		}
+		Object[] captured = args; 
+		for (int i=0;i<argCount;i++) {
+			Object arg = capture(args[i]); 
+			if (arg != args[i]) {
+				if (captured == args) {
+					captured = args.clone(); //the caller's array is left unchanged
+				}
+				captured[i] = arg; 
+			}
+		}
+		String stackTrace = stackTrace(t); 
+		synchronized (this) {
+			writeHeader(logger, level, millis, threadId, pattern, argCount, t); 
+			putVarint(argCount + 1); 
+			for (int i=0;i<argCount;i++) {
+				putArgument(captured[i]); 
+			}
+			writeStackTrace(stackTrace); 
+		}
+	}
+	
+	/** Writes a message that is not a pattern */
+	void write(ConsoleLogger logger, int level, long millis, long threadId, CharSequence message, Throwable t) {
+		if (failed) {
+			return; 
+		}
+		String stackTrace = stackTrace(t); 
+		synchronized (this) {
+			writeHeader(logger, level, millis, threadId, message == null ? null : message.toString(), -1, t); 
+			putVarint(0); 
+			writeStackTrace(stackTrace); 
+		}
+	}
+	
+	/** Returns the argument itself if it is written as a value, otherwise its text */
+	private static Object capture(Object o) {
+		if (o == null || isValue(o.getClass())) {
+			return o; 
+		}
+		return BoundedRenderer.render(o); 
+	}
+	
+	/** True for the types that {@link #putArgument(Object)} writes as values (unless their 
+	 *  formatting has been replaced by a registered formatter) */
+	private static boolean isValue(Class<?> c) {
+		return (c == String.class || c == Integer.class || c == Long.class || c == Short.class || c == Byte.class 
+				|| c == Boolean.class || c == Character.class || c == Double.class || c == Float.class) 
+				&& TypeFormatterRegistry.isBuiltIn(c); 
+	}
+	
+	private static String stackTrace(Throwable t) {
+		if (t == null) {
+			return null; 
+		}
+		StringWriter sw = new StringWriter(); 
+		t.printStackTrace(new PrintWriter(sw));
+		return sw.toString(); 
+	}
+	
+	/** Writes the logger and template records the statement needs and the start of the event. 
+	 *  Only patterns with arguments are kept in the template dictionary; messages without arguments 
+	 *  (often built at runtime, e.g. by concatenation) are written inline with the event. 
+	 *  @param argCount number of arguments (-1: a message that is not a pattern) */
+	private void writeHeader(ConsoleLogger logger, int level, long millis, long threadId, String pattern, int argCount, 
+			Throwable t) {
+		if (pattern == null) {
+			pattern = "null"; //as printed by the console
+		}
+		Integer loggerId = loggerIds.get(logger); 
+		if (loggerId == null) {
+			loggerId = loggerIds.size(); 
+			loggerIds.put(logger, loggerId); 
+			putByte(LOGGER); 
+			putString(logger.getName()); 
+		}
+		Integer templateId = (argCount > 0) ? templateIds.get(pattern) : null; 
+		if (templateId == null && argCount > 0 && templateIds.size() < MAX_TEMPLATES && pattern.indexOf("{}") >= 0) {
+			templateId = templateIds.size(); 
+			templateIds.put(pattern, templateId); 
+			putByte(TEMPLATE); 
+			putString(pattern); 
+		}
+		putByte(templateId == null ? INLINE_EVENT : EVENT); 
+		putByte(level | (t == null ? 0 : THROWABLE_FLAG)); 
+		putVarlong(zigzag(millis - lastMillis)); 
+		lastMillis = millis; 
+		putVarint(loggerId); 
+		putVarlong(threadId); 
+		if (templateId == null) {
+			putString(pattern); 
+		} else {
+			putVarint(templateId); 
+		}
+	}
+	
+	private void writeStackTrace(String stackTrace) {
+		if (stackTrace != null) {
+			putString(stackTrace); 
+		}
+		pending = true; 
+		if (immediate) {
+			writeOut(); 
+		}
+	}
+	
+	private void putArgument(Object o) {
+		if (o == null) {
+			putByte(NULL); 
+			return; 
+		}
+		if (o instanceof BoundedRenderer.Rendered) { //already within the budget 
+			putByte(STRING); 
+			putString(((BoundedRenderer.Rendered) o).text); 
+			return; 
+		}
+		Class<?> c = o.getClass(); 
+		if (c == String.class) { 
+			String s = (String) o; 
+			if (s.length() <= BoundedRenderer.argumentBudget() && TypeFormatterRegistry.isBuiltIn(c)) {
+				putByte(STRING); 
+				putString(s); 
+				return; 
+			}
+		} else if (TypeFormatterRegistry.isBuiltIn(c)) {
+			if (c == Integer.class) {
+				putByte(INT); 
+				putVarint(zigzag(((Integer) o).intValue())); 
+				return; 
+			} else if (c == Long.class) {
+				putByte(LONG); 
+				putVarlong(zigzag(((Long) o).longValue())); 
+				return; 
+			} else if (c == Short.class) {
+				putByte(SHORT); 
+				putVarint(zigzag(((Short) o).intValue())); 
+				return; 
+			} else if (c == Byte.class) {
+				putByte(BYTE); 
+				putByte(((Byte) o).byteValue()); 
+				return; 
+			} else if (c == Boolean.class) {
+				putByte(((Boolean) o).booleanValue() ? TRUE : FALSE); 
+				return; 
+			} else if (c == Character.class) {
+				putByte(CHAR); 
+				putVarint(((Character) o).charValue()); 
+				return; 
+			} else if (c == Double.class) {
+				ensure(9); 
+				buf.put((byte) DOUBLE).putLong(Double.doubleToRawLongBits(((Double) o).doubleValue())); 
+				return; 
+			} else if (c == Float.class) {
+				ensure(5); 
+				buf.put((byte) FLOAT).putInt(Float.floatToRawIntBits(((Float) o).floatValue())); 
+				return; 
+			}
+		}
+		scratch.setLength(0); 
+		BoundedRenderer.append(scratch, o, BoundedRenderer.argumentBudget(), null); 
+		putByte(STRING); 
+		putString(scratch); 
+	}
+	
+	private static int zigzag(int n) {
+		return (n << 1) ^ (n >> 31); 
+	}
+	
+	private static long zigzag(long n) {
+		return (n << 1) ^ (n >> 63); 
+	}
+	
+	private void putByte(int b) {
+		ensure(1); 
+		buf.put((byte) b); 
+	}
+	
+	private void putVarint(int n) {
+		ensure(5); 
+		while ((n & ~0x7F) != 0) {
+			buf.put((byte) ((n & 0x7F) | 0x80)); 
+			n >>>= 7; 
+		}
+		buf.put((byte) n); 
+	}
+	
+	private void putVarlong(long n) {
+		ensure(10); 
+		while ((n & ~0x7FL) != 0) {
+			buf.put((byte) ((n & 0x7F) | 0x80)); 
+			n >>>= 7; 
+		}
+		buf.put((byte) n); 
+	}
+	
+	private void putString(CharSequence s) {
+		int length = s.length(); 
+		int i = 0; 
+		while (i < length && s.charAt(i) < 0x80) {
+			i++; 
+		}
+		if (i == length) { //ASCII: one byte per character
+			putVarint(length); 
+			ensure(length); 
+			for (i=0;i<length;i++) {
+				buf.put((byte) s.charAt(i)); 
+			}
+		} else {
+			byte[] bytes = s.toString().getBytes(StandardCharsets.UTF_8); 
+			putVarint(bytes.length); 
+			ensure(bytes.length); 
+			buf.put(bytes); 
+		}
+	}
+	
+	/** Makes room for n bytes in the buffer */
+	private void ensure(int n) {
+		if (buf.remaining() < n) {
+			writeOut(); 
+			if (buf.capacity() < n) {
+				buf = ByteBuffer.allocate(n); 
+			}
+		}
+	}
+	
+	private void writeOut() {
+		buf.flip(); 
+		try {
+			while (!failed && buf.hasRemaining()) {
+				channel.write(buf); 
+			}
+		} catch (IOException ex) {
+			System.err.println("Console logger can't write to the log file "+file+" ("+ex+"). "
+					+ "Further log statements are discarded.");
+			failed = true; 
+		}
+		buf.clear(); 
+	}
+	
+	/** Called by the flush timer: writes out the statements written since the last call */
+	synchronized void flushIfPending() {
+		if (pending) {
+			pending = false; 
+			writeOut(); 
+		}
+	}
+	
+	/** Writes out all statements. Statements written afterwards are written out immediately. */
+	synchronized void close() {
+		immediate = true; 
+		writeOut(); 
+	}
+	
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.slf4j.helpers.Util;
+
+/** Renders arguments within a budget of characters, so that a huge array or collection does not 
+ *  turn into a line of several megabytes. 
+ *  
+ *  Arrays, collections and maps are rendered as head and tail with the number of elements left 
+ *  out in between: <code>[1.0, 2.0, ... 1019998 more ..., 9.0]</code>. About two thirds of the 
+ *  budget are used for the head, the rest for the tail. Rendering stops as soon as the budget is 
+ *  used up; the elements left out are never rendered (elements of collections without random 
+ *  access are iterated over, but only the last few are kept for the tail). Elements are formatted 
+ *  like arguments, collections and maps for which a {@link TypeFormatter} is registered are left 
+ *  to it. Other arguments are cut off if their text exceeds the budget. 
+ *  
+ *  The budgets are set with <code>maxArgumentLength</code> and <code>maxLineLength</code> (0 = no limit). */
+final class BoundedRenderer {
+
+	static final int DEFAULT_MAX_ARGUMENT_LENGTH = 1000; 
+	static final int DEFAULT_MAX_LINE_LENGTH = 10000; 
+	
+	/** Maximum number of elements kept for the tail when iterating over a collection */
+	private static final int MAX_TAIL = 16; 
+	
+	private static volatile int maxArgumentLength = DEFAULT_MAX_ARGUMENT_LENGTH; 
+	private static volatile int maxLineLength = DEFAULT_MAX_LINE_LENGTH; 
+	
+	private BoundedRenderer() {
+	}
+	
+	static void configure(int maxArgument, int maxLine) {
+		maxArgumentLength = Math.max(0, maxArgument); 
+		maxLineLength = Math.max(0, maxLine); 
+	}
+	
+	/** Budget for an argument that is formatted on its own (without a line) */
+	static int argumentBudget() {
+		int budget = maxArgumentLength; 
+		return budget == 0 ? Integer.MAX_VALUE : budget; 
+	}
+	
+	/** Text of an argument that has been rendered within the budget before the message is formatted 
+	 *  (by the writer thread, or into a JSON line or binary record). It is copied as it is: rendering 
+	 *  it again would cut it a second time and count the marks left by the first cut as argument text. */
+	static final class Rendered {
+		final String text; 
+		
+		Rendered(String text) {
+			this.text = text; 
+		}
+		
+		@Override
+		public String toString() {
+			return text; 
+		}
+	}
+	
+	/** Renders an argument within the argument budget, for formatting it later */
+	static Rendered render(Object o) {
+		StringBuilder sbuf = new StringBuilder(); 
+		append(sbuf, o, argumentBudget(), null); 
+		return new Rendered(sbuf.toString()); 
+	}
+	
+	/** Appends an argument of a message which started at <code>lineStart</code> in the buffer */
+	static void appendArgument(StringBuilder sbuf, Object o, int lineStart) {
+		int budget = maxArgumentLength; 
+		int maxLine = maxLineLength; 
+		if (maxLine > 0) {
+			int left = maxLine - (sbuf.length() - lineStart); 
+			if (left <= 0) {
+				sbuf.append("..."); 
+				return; 
+			}
+			budget = (budget == 0) ? left : Math.min(budget, left); 
+		}
+		if (budget == 0) {
+			MessageFormatterEx.deeplyAppendParameter(sbuf, o, null); 
+		} else {
+			append(sbuf, o, budget, null); 
+		}
+	}
+	
+	/** Appends an argument using about <code>budget</code> characters. 
+	 *  @param seen containers that are currently being rendered (to detect cycles) */
+	static void append(StringBuilder sbuf, Object o, int budget, IdentityHashMap<Object, Object> seen) {
+		if (o == null) {
+			sbuf.append("null"); 
+		} else if (o instanceof Rendered) {
+			sbuf.append(((Rendered) o).text); 
+		} else if (o.getClass().isArray()) {
+			appendContainer(sbuf, o, budget, seen); 
+		} else if ((o instanceof Collection || o instanceof Map) && !TypeFormatterRegistry.hasFormatter(o.getClass())) {
+			appendContainer(sbuf, o, budget, seen); 
+		} else if (o instanceof String) {
+			String s = (String) o; 
+			if (s.length() > budget) {
+				sbuf.append(s, 0, budget); 
+				appendCut(sbuf, s.length() - budget); 
+			} else {
+				sbuf.append(s); 
+			}
+		} else {
+			int start = sbuf.length(); 
+			MessageFormatterEx.deeplyAppendParameter(sbuf, o, null); 
+			int length = sbuf.length() - start; 
+			if (length > budget) {
+				sbuf.setLength(start + budget); 
+				appendCut(sbuf, length - budget); 
+			}
+		}
+	}
+	
+	private static void appendCut(StringBuilder sbuf, int chars) {
+		sbuf.append("... (").append(chars).append(" more chars)"); 
+	}
+	
+	/** Appends an array, collection or map. If iterating over the container fails (e.g. with a 
+	 *  ConcurrentModificationException or a list that shrinks while it is rendered) the text of the 
+	 *  container is replaced by <code>[FAILED toString()]</code>, like arguments whose toString() fails. */
+	private static void appendContainer(StringBuilder sbuf, Object o, int budget, IdentityHashMap<Object, Object> seen) {
+		int argumentStart = sbuf.length(); 
+		boolean isMap = o instanceof Map; 
+		sbuf.append(isMap ? '{' : '['); 
+		if (seen == null) {
+			seen = new IdentityHashMap<Object, Object>(); 
+		}
+		if (seen.containsKey(o)) {
+			sbuf.append("..."); 
+		} else {
+			seen.put(o, null); 
+			int start = sbuf.length(); 
+			try {
+				if (o instanceof Map) {
+					appendIterated(sbuf, ((Map<?,?>) o).entrySet(), ((Map<?,?>) o).size(), start, budget, seen); 
+				} else if (o instanceof Collection && !(o instanceof List && o instanceof RandomAccess)) {
+					appendIterated(sbuf, (Collection<?>) o, ((Collection<?>) o).size(), start, budget, seen); 
+				} else {
+					appendIndexed(sbuf, o, start, budget, seen); 
+				}
+			} catch (Throwable t) {
+				Util.report("SLF4J: Failed toString() invocation on an object of type [" + o.getClass().getName() + "]", t);
+				sbuf.setLength(argumentStart); 
+				sbuf.append("[FAILED toString()]"); 
+				return; 
+			} finally {
+				seen.remove(o); 
+			}
+		}
+		sbuf.append(isMap ? '}' : ']'); 
+	}
+	
+	/** Arrays and lists with random access: head, then the tail from the end */
+	private static void appendIndexed(StringBuilder sbuf, Object o, int start, int budget, IdentityHashMap<Object, Object> seen) {
+		int size = (o instanceof List) ? ((List<?>) o).size() : java.lang.reflect.Array.getLength(o); 
+		int headEnd = start + budget * 2 / 3; 
+		int i = 0; 
+		while (i < size && (i == 0 || sbuf.length() < headEnd)) {
+			if (i > 0) {
+				sbuf.append(", "); 
+			}
+			appendElement(sbuf, o, i++, Math.max(1, start + budget - sbuf.length()), seen); 
+		}
+		if (i == size) {
+			return; 
+		}
+		//render the elements of the tail backwards as long as they fit into the rest of the budget
+		int tailBudget = start + budget - sbuf.length() - skippedLength(size - i); 
+		StringBuilder scratch = new StringBuilder(); 
+		int[] ends = new int[8]; 
+		int tail = 0; 
+		while (i < size - tail) {
+			int mark = scratch.length(); 
+			appendElement(scratch, o, size - tail - 1, Math.max(1, tailBudget), seen); 
+			if (scratch.length() - mark + 2 > tailBudget) {
+				break; 
+			}
+			tailBudget -= scratch.length() - mark + 2; 
+			ends = keep(ends, tail++, scratch.length()); 
+		}
+		if (i < size - tail) {
+			sbuf.append(", ... ").append(size - tail - i).append(" more ..."); 
+		}
+		appendTail(sbuf, scratch, ends, tail); 
+	}
+	
+	/** Collections without random access and maps: head, then the tail from the last elements seen */
+	private static void appendIterated(StringBuilder sbuf, Collection<?> c, int size, int start, int budget, IdentityHashMap<Object, Object> seen) {
+		int headEnd = start + budget * 2 / 3; 
+		Iterator<?> it = c.iterator(); 
+		int i = 0; 
+		while (it.hasNext() && (i == 0 || sbuf.length() < headEnd)) {
+			if (i++ > 0) {
+				sbuf.append(", "); 
+			}
+			appendItem(sbuf, it.next(), Math.max(1, start + budget - sbuf.length()), seen); 
+		}
+		if (!it.hasNext()) {
+			return; 
+		}
+		Object[] ring = new Object[MAX_TAIL]; 
+		int count = 0; 
+		while (it.hasNext()) {
+			ring[count++ % MAX_TAIL] = it.next(); 
+		}
+		int kept = Math.min(count, MAX_TAIL); 
+		int tailBudget = start + budget - sbuf.length() - skippedLength(count); 
+		StringBuilder scratch = new StringBuilder(); 
+		int[] ends = new int[MAX_TAIL]; 
+		int tail = 0; 
+		while (tail < kept) {
+			int mark = scratch.length(); 
+			appendItem(scratch, ring[(count - tail - 1) % MAX_TAIL], Math.max(1, tailBudget), seen); 
+			if (scratch.length() - mark + 2 > tailBudget) {
+				break; 
+			}
+			tailBudget -= scratch.length() - mark + 2; 
+			ends[tail++] = scratch.length(); 
+		}
+		if (tail < count) {
+			sbuf.append(", ... ").append(count - tail).append(" more ..."); 
+		}
+		appendTail(sbuf, scratch, ends, tail); 
+	}
+	
+	/** Length of the text <code>, ... n more ...</code> for at most <code>n</code> elements left out. 
+	 *  It is reserved before the tail is chosen, so the elements of the tail are never cut off. */
+	private static int skippedLength(int n) {
+		return ", ... ".length() + Integer.toString(n).length() + " more ...".length(); 
+	}
+	
+	/** Records the end of the next tail element in <code>ends</code>, growing it if necessary */
+	private static int[] keep(int[] ends, int index, int end) {
+		if (index == ends.length) {
+			ends = Arrays.copyOf(ends, index * 2); 
+		}
+		ends[index] = end; 
+		return ends; 
+	}
+	
+	/** Appends the elements of the tail, which were rendered backwards (last element first) into 
+	 *  <code>scratch</code>, in their original order. <code>ends[k]</code> is the end of the k-th 
+	 *  element from the end. */
+	private static void appendTail(StringBuilder sbuf, StringBuilder scratch, int[] ends, int tail) {
+		for (int k = tail - 1; k >= 0; k--) {
+			sbuf.append(", ").append(scratch, k == 0 ? 0 : ends[k - 1], ends[k]); 
+		}
+	}
+	
+	private static void appendItem(StringBuilder sbuf, Object item, int budget, IdentityHashMap<Object, Object> seen) {
+		if (item instanceof Map.Entry) { //rendered as key=value like Map.toString()
+			Map.Entry<?,?> entry = (Map.Entry<?,?>) item; 
+			int start = sbuf.length(); 
+			append(sbuf, entry.getKey(), budget, seen); 
+			sbuf.append('='); 
+			append(sbuf, entry.getValue(), Math.max(1, budget - (sbuf.length() - start)), seen); 
+		} else {
+			append(sbuf, item, budget, seen); 
+		}
+	}
+	
+	private static void appendElement(StringBuilder sbuf, Object o, int i, int budget, IdentityHashMap<Object, Object> seen) {
+		if (o instanceof Object[]) {
+			append(sbuf, ((Object[]) o)[i], budget, seen); 
+		} else if (o instanceof List) {
+			append(sbuf, ((List<?>) o).get(i), budget, seen); 
+		} else if (o instanceof double[]) {
+			DoubleFormatter.append(sbuf, ((double[]) o)[i]); 
+		} else if (o instanceof float[]) {
+			DoubleFormatter.append(sbuf, ((float[]) o)[i]); 
+		} else if (o instanceof int[]) {
+			sbuf.append(((int[]) o)[i]); 
+		} else if (o instanceof long[]) {
+			sbuf.append(((long[]) o)[i]); 
+		} else if (o instanceof byte[]) {
+			sbuf.append(((byte[]) o)[i]); 
+		} else if (o instanceof short[]) {
+			sbuf.append(((short[]) o)[i]); 
+		} else if (o instanceof char[]) {
+			sbuf.append(((char[]) o)[i]); 
+		} else if (o instanceof boolean[]) {
+			sbuf.append(((boolean[]) o)[i]); 
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+
+/** Determines the location (class, method and line) of the statement that called the logger. 
+ * 
+ *  The stack is walked lazily with a {@link StackWalker} which stops at the first frame outside the 
+ *  logging classes, so only the topmost frames are looked at. The text of a location is cached per 
+ *  call site (class, method name and line): a statement that is executed again doesn't build the text 
+ *  again. The bytecode index would be cheaper to get than the line, but it doesn't tell overloaded 
+ *  methods apart (their signature is not available from a stack frame before Java 10). */
+final class CallerLocation {
+
+	/** Maximum number of call sites cached per class */
+	private static final int MAX_SITES_PER_CLASS = 1024; 
+	
+	private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE); 
+	
+	private static final ClassValue<Sites> SITES = new ClassValue<Sites>() {
+		@Override
+		protected Sites computeValue(Class<?> type) {
+			return new Sites(type); 
+		}
+	};
+	
+	private static final Predicate<StackFrame> IS_CALLER = new Predicate<StackFrame>() {
+		public boolean test(StackFrame frame) {
+			return !SITES.get(frame.getDeclaringClass()).internal; 
+		}
+	};
+	
+	private static final Function<Stream<StackFrame>, StackFrame> FIRST_CALLER = new Function<Stream<StackFrame>, StackFrame>() {
+		public StackFrame apply(Stream<StackFrame> frames) {
+			return frames.filter(IS_CALLER).findFirst().orElse(null); 
+		}
+	};
+	
+	/** The call sites of a class and their locations */
+	private static final class Sites {
+		
+		/** True for loggers and the SLF4J classes that call them */
+		final boolean internal; 
+		
+		final String simpleName; 
+		
+		final Map<Site, String> locations = new ConcurrentHashMap<Site, String>(); 
+		
+		Sites(Class<?> type) {
+			String name = type.getName(); 
+			internal = type == CallerLocation.class || Logger.class.isAssignableFrom(type) 
+					|| name.startsWith("org.slf4j.spi.") || name.startsWith("org.slf4j.helpers."); 
+			simpleName = name.substring(name.lastIndexOf('.')+1); 
+		}
+		
+		String location(StackFrame frame) {
+			Site site = new Site(frame.getMethodName(), frame.getLineNumber()); 
+			String location = locations.get(site); 
+			if (location == null) {
+				location = simpleName + "." + site.method + (site.line >= 0 ? ":" + site.line : ""); 
+				if (locations.size() < MAX_SITES_PER_CLASS) {
+					locations.put(site, location); 
+				}
+			}
+			return location; 
+		}
+	}
+	
+	private static final class Site {
+		final String method; 
+		final int line; 
+		
+		Site(String method, int line) {
+			this.method = method; 
+			this.line = line; 
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Site)) {
+				return false; 
+			}
+			Site other = (Site) obj; 
+			return line == other.line && method.equals(other.method); 
+		}
+		
+		@Override
+		public int hashCode() {
+			return method.hashCode() * 31 + line; 
+		}
+	}
+	
+	private CallerLocation() {
+	}
+	
+	/** Appends the location of the caller, followed by a space. With a width > 0 the location is 
+	 *  padded to the width, longer locations are cut off at the front (keeping method and line). */
+	static void append(StringBuilder buf, int width) {
+		StackFrame frame = WALKER.walk(FIRST_CALLER); 
+		String location = (frame == null) ? "?" : SITES.get(frame.getDeclaringClass()).location(frame); 
+		if (width > 0 && location.length() > width) {
+			buf.append(location, location.length()-width, location.length()); 
+		} else {
+			buf.append(location); 
+			for (int i=location.length();i<width;i++) {
+				buf.append(' '); 
+			}
+		}
+		buf.append(' '); 
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/** Writes log statements directly to the file descriptors of the standard output 
+ *  and the error stream, bypassing {@code System.out} and {@code System.err}. 
+ *  
+ *  Lines are encoded into reusable direct byte buffers by a {@link LineEncoder}. Each 
+ *  stream owns several buffers that are filled one after another and written with a 
+ *  single gathering write, so that a batch of lines (e.g. from the asynchronous writer) 
+ *  goes out in one system call.
+ *  
+ *  Redirections via {@code System.setOut()} are not seen by this output. */
+class ChannelOutput extends ConsoleOutput {
+
+	private static final int CHUNK_SIZE = 8192;
+	private static final int CHUNK_COUNT = 8;
+	
+	/** Pending output of one file descriptor */
+	private final class Target implements LineEncoder.Sink {
+		final FileChannel channel; 
+		final ByteBuffer[] chunks = new ByteBuffer[CHUNK_COUNT];
+		int current; 
+		boolean failed; 
+		
+		Target(FileDescriptor fd) {
+			channel = new FileOutputStream(fd).getChannel();
+			for (int i=0;i<chunks.length;i++) {
+				chunks[i] = ByteBuffer.allocateDirect(CHUNK_SIZE); 
+			}
+		}
+		
+		boolean isEmpty() {
+			return current == 0 && chunks[0].position() == 0; 
+		}
+		
+		/** Returns a chunk with free space, writing out all chunks if necessary. */
+		public ByteBuffer next() {
+			if (current < chunks.length-1) {
+				return chunks[++current];
+			}
+			writeOut();
+			return chunks[0];
+		}
+		
+		void writeOut() {
+			int count = current + 1;
+			for (int i=0;i<count;i++) {
+				chunks[i].flip();
+			}
+			try {
+				while (!failed && chunks[current].hasRemaining()) {
+					channel.write(chunks, 0, count);
+				}
+			} catch (IOException ex) {
+				failed = true; //like PrintStream we don't report errors (e.g. a closed pipe)
+			}
+			for (int i=0;i<count;i++) {
+				chunks[i].clear();
+			}
+			current = 0;
+		}
+	}
+	
+	private final Target out = new Target(FileDescriptor.out); 
+	private final Target err = new Target(FileDescriptor.err);
+	private Target last;
+	
+	private final LineEncoder encoder = new LineEncoder(LineEncoder.consoleCharset());
+	
+	private final String lineSeparator = System.lineSeparator();
+	
+	@Override
+	void write(boolean error, CharSequence line, Throwable t) {
+		Target target = error ? err : out;
+		if (last != target && last != null && !last.isEmpty()) {
+			last.writeOut(); //keeps standard output and error stream in order
+		}
+		last = target; 
+		encode(target, line); 
+		encode(target, lineSeparator);
+		if (t != null) {
+			StringWriter sw = new StringWriter(); 
+			t.printStackTrace(new PrintWriter(sw));
+			encode(target, sw.getBuffer());
+		}
+	}
+	
+	private void encode(Target target, CharSequence cs) {
+		encoder.encode(target.chunks[target.current], cs, target);
+	}
+
+	@Override
+	void flush() {
+		if (!out.isEmpty()) {
+			out.writeOut();
+		}
+		if (!err.isEmpty()) {
+			err.writeOut();
+		}
+	}
+	
+}
@@ -1,627 +1,1300 @@
-/**
- * Copyright (c) 2004-2012 QOS.ch
- * All rights reserved.
- *
- * Permission is hereby granted, free of charge, to any person obtaining
- * a copy of this software and associated documentation files (the
- * "Software"), to  deal in  the Software without  restriction, including
- * without limitation  the rights to  use, copy, modify,  merge, publish,
- * distribute,  sublicense, and/or sell  copies of  the Software,  and to
- * permit persons to whom the Software  is furnished to do so, subject to
- * the following conditions:
- *
- * The  above  copyright  notice  and  this permission  notice  shall  be
- * included in all copies or substantial portions of the Software.
- *
- * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
- * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
- * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
- * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
- * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
- * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
- * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
- *
- */
-package org.slf4j.console;
-
-import java.io.PrintStream;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
-
-import org.slf4j.Logger;
-import org.slf4j.event.LoggingEvent;
-import org.slf4j.helpers.FormattingTuple;
-import org.slf4j.helpers.MarkerIgnoringBase;
-import org.slf4j.spi.LocationAwareLogger;
-
-
-/**
- * <p>Simple implementation of a {@link Logger} that requires minimal 
- * configuration and sends all enabled log messages, for all defined loggers to the console.
- *  
- * This logger aims to provide developers with a zero-cost and instant benefit 
- * transition from using System.out.println() statements to logging. 
- * Developers only have to add this small jar and the standard SLF4J-api jar to 
- * their project. They don't have to configure loggers via property files or 
- * command line arguments; instead they can double-click the jar file 
- * and quickly set or deactivate any logger with minimal typing. To set the 
- * class MyClass in com.mypackage.MyClass to trace level, click the add button, 
- * select a sheet name for your logger configuration, add the following line 
- * and then click the save button:   
- * <pre>
- * com.mypackage.MyClass:trace
- * </pre>
- * The level can also be abbreviated by typing only the first letter. To set the 
- * log level to OFF, deactivating the logger use:
- * <pre>com.mypackage.MyClass:off</pre>
- * or
- * <pre>com.mypackage.MyClass:o</pre>
- * 
- * If no log level is specified on subsequent lines or no package name is specified on 
- * subsequent lines, then the log level of the most recent package will be assigned. 
- * 
- * Log levels can also be set via System properties. To set the logger 
- * <code>com.mypackage.MyClass</code> to the warn level, add a property with the key of 
- * <code>org.slf4j.console.com.mypackage.MyClass</code> and a value of <code>warn</code>
- * to System.getProperties(). This can also be set when invoking the Java Virtual Machine
- * by adding the argument
- * <pre>
- * -Dorg.slf4j.console.com.mypackage.MyClass=trace
- * </pre>
- * 
- * Log levels can also be set via a properties file with the name <code>consolelogger.properties</code>.
- * To set the logger <code>com.mypackage.MyClass</code> to the warn level, add the following 
- * line to this properties file (in contrast to most other logging properties files, no prefix to the 
- * class name is needed):
- * <pre>
- * com.mypackage.MyClass:warn
- * </pre> 
- * 
- * The log output squarely focuses on the message's content; contextual information is 
- * kept very short. The output can only be customized in two ways: 
- * 1) Modify the column width for the logger name. Default is 10 characters. Any logger names that are 
- * larger than the column width are cut off after this number of characters. Add the line  
- * <code>width=15</code> to the consolelogger.properties file or <code>-Dorg.slf4j.console.width=15</code> as a command line argument 
- * when invoking the Java Virtual Machine. 
- * 2) Add a time stamp to the log output. Add the following line: <code>time=true</code> to the 
- * consolelogger.properties file or <code>-Dorg.slf4j.console.time=true</code> as a command line argument 
- * when invoking the Java Virtual Machine.   
- * 
- * An example output is shown below. Logger names are cut off after 10 characters
- * and levels are abbreviated to a single character. 
- * 
- * By default, every logger is set to info level. All levels except error are sent 
- * to {@code System.out} and the error level is sent to ({@code System.err}). 
- *   
- * 
- *  <pre>
-AppView    d| display dimensions 960x880
-..         d| initializing to array size 1020000
-..         d| channel caption 0 size 180
-PulseChann d| started 2017-01-12T14:33:47 
-GraphAnaly t| channel 1 size 114
-..         t| channel 2 size 8597
-..         t| channel 3 size 0
-..         W| Channel 3 is empty!
-..         d| retrieved 3 edges
-ScopeFrame d| channels: 3
-PulseChann d| sample rate 100000.0
-..         d| series count 362
-..         d| sample rate 100000.0
-..         d| series count 8
-</pre>
- * 
- *
- * <p>This implementation was derived from org.slf4j's SimpleLogger 
- * class (in package org.slf4j.impl) which was authored by</p>
- * <p>
- * @author Ceki G&uuml;lc&uuml;
- * @author <a href="mailto:sanders@apache.org">Scott Sanders</a>
- * @author Rod Waldhoff
- * @author Robert Burrell Donkin
- * @author C&eacute;drik LIME<br>
- * and which in turn was heavily inspired by  
- *
- * <a href="http://commons.apache.org/logging/">Apache Commons Logging</a>'s SimpleLog.</p>
- * </p>
- */
-public class ConsoleLogger extends MarkerIgnoringBase {
-
-    private static final long serialVersionUID = -632788891211436180L;
-
-    private static final int LOG_LEVEL_TRACE = LocationAwareLogger.TRACE_INT;
-    private static final int LOG_LEVEL_DEBUG = LocationAwareLogger.DEBUG_INT;
-    private static final int LOG_LEVEL_INFO = LocationAwareLogger.INFO_INT;
-    private static final int LOG_LEVEL_WARN = LocationAwareLogger.WARN_INT;
-    private static final int LOG_LEVEL_ERROR = LocationAwareLogger.ERROR_INT;
-    
-    // The OFF level can only be used in configuration files to disable logging. It has
-    // no printing method associated with it in o.s.Logger interface.
-    private static final int LOG_LEVEL_OFF = LOG_LEVEL_ERROR + 10;
-
-    private static int DEFAULT_LOG_LEVEL = LOG_LEVEL_INFO;
-
-    public static final String LOG_KEY_PREFIX = "org.slf4j.console.";
-    
-    /** Prefix for a property that determines that time values (minutes, seconds and nanos) should 
-     * be included in the log output. Existence of this key (no matter what the value is) 
-     * will lead to time being displayed.  */
-    public static final String KEY_INCLUDE_TIME = LOG_KEY_PREFIX+"time";
-    
-    /** Prefix for a property that determines the fixed width used to display the logger name. 
-     *  Default value is set to 12.  */
-    public static final String KEY_WIDTH = LOG_KEY_PREFIX+"width";
-    
-    /** This key is used for storing logger definitions to preferences via {@link ConfigFrame} */
-    static final String KEY_PREFERENCES_LOGGER_BLOB = LOG_KEY_PREFIX+"loggers";
-
-    /** This key determines which preferences group is active */
-	static final String KEY_PREFERENCES_ATTRIBUTE_SELECTED_GROUP = "selected";
-	
-	/** The text attribute of a logger group (refers to the text which contains 
-	 *  the various logger definition statements). */
-	static final String KEY_PREFERENCES_ATTRIBUTE_TEXT = "text";
-	
-	static final String KEY_PREFERENCES_ATTRIBUTE_TIMESTAMP = "";	
-    
-    static final int DEFAULT_LOGGER_COLUMN_WIDTH = 10;
-
-    
-    private static boolean includeTime;
-    private static DateTimeFormatter timeStampFormatter;
-    private static int loggerNameLength = DEFAULT_LOGGER_COLUMN_WIDTH;
-    private static String pad =     "          ";
-    private static String padDots = "..        ";
-    
-    /** The current log level */
-    protected int currentLogLevel = LOG_LEVEL_INFO;
-
-    /** Package access: allows only {@link ConsoleLoggerFactory} to instantiate
-     * ConsoleLogger instances.     */
-    ConsoleLogger(String name) {
-        this.name = name;
-
-        String levelString = recursivelyComputeLevelString();
-        if (levelString != null) {
-            this.currentLogLevel = stringToLevel(levelString);
-        } else {
-            this.currentLogLevel = DEFAULT_LOG_LEVEL;
-        }
-    }
-
-    private static boolean INITIALIZED = false;   
-    static ConsoleLoggerConfiguration CONFIG_PARAMS = null;    
-    
-    static void lazyInit() {
-        if (INITIALIZED) {
-            return;
-        }
-        INITIALIZED = true;
-        init();
-    }
-    
-    // external software might be invoking this method directly. Do not rename
-    // or change its semantics.
-    static void init() {
-    	CONFIG_PARAMS = new ConsoleLoggerConfiguration();
-    	CONFIG_PARAMS.loadProperties();
-    	includeTime = ( System.getProperty(ConsoleLogger.KEY_INCLUDE_TIME) != null );
-    	if (includeTime) {
-    		timeStampFormatter = DateTimeFormatter.ofPattern("HH:mm:ss.SSS ");
-    	}
-    	String w = System.getProperty(ConsoleLogger.KEY_WIDTH); 
-    	if (w != null) {
-    		pad = "";
-    		try {
-    			loggerNameLength = Integer.parseInt(w); 
-    			for (int i=0;i< (loggerNameLength==0 ? 0 : loggerNameLength+1);i++) {
-    				pad += " ";
-    			}
-    		} catch (NumberFormatException ex) {
-    			System.err.println("Console logger width ("+w+") is not a valid integer value (NumberFormatException). Using default width instead.");
-    		}
-    		
-			if (pad.length() > 2) {
-				padDots = ".." + pad.substring(2);
-			} else {
-				padDots = pad;
-			}
-    	}
-    }    
-    
-    private transient String veryShortName; 
-    private transient int longNameHashCode; 
-    
-    /** Last hash code used when printing to console. */
-    static AtomicInteger lastHashCode = new AtomicInteger(); 
-    
-    private void computeVeryShortName() { 
-    	int posF = name.lastIndexOf('.')+1;
-    	if (name.endsWith("_T") || name.endsWith("_D")) {
-    		veryShortName = name.substring(posF,Math.min(name.length()-2, posF+loggerNameLength));
-    	} else {
-    		veryShortName = name.substring(posF,Math.min(name.length(), posF+loggerNameLength)); 	
-    	}
-   		veryShortName += pad.substring(0, pad.length()-veryShortName.length()); //one empty space after short name
-   		this.longNameHashCode = name.hashCode();
-    }
-    
-    String recursivelyComputeLevelString() {
-    	//allows us to quickly set loggers into debug or trace mode when debugging
-//    	if (name.endsWith("_T")) {
-//    		reportLevelEscalation(true);
-//    		return "trace";
-//    	} else if (name.endsWith("_D")) {
-//    		reportLevelEscalation(false);
-//    		return "debug"; 
-//    	}
-    	
-        String tempName = name;        
-        String levelString = null;
-        int indexOfLastDot = tempName.length();
-        while ((levelString == null) && (indexOfLastDot > -1)) {
-            tempName = tempName.substring(0, indexOfLastDot);
-            levelString = CONFIG_PARAMS.getStringProperty(LOG_KEY_PREFIX + tempName, null);
-            indexOfLastDot = String.valueOf(tempName).lastIndexOf('.');
-        }
-        
-        return levelString;
-    }
-    
-    /** Write information to log that we have a level escalation where developer has 
-     *  appended _D or _T to the name of the logger, which switches the logger into a 
-     *  debug or trace mode.  */
-    private void reportLevelEscalation(boolean traceLevel) {
-    	int posF = name.lastIndexOf('.')+1;
-    	String shortName = name.substring(posF, name.length()-2);
-    	String txt = name.substring(0,posF-1); 
-    	if (txt.startsWith("class ")) txt = txt.substring(6);
-    	log(LOG_LEVEL_INFO, (traceLevel ? "+\"_T\" => TRACE " : "+\"_D\" => DEBUG ") + shortName + " ("+txt+")",null);
-    			
-    }
-
-    private static int stringToLevel(String levelStr) {
-        if ("trace".equalsIgnoreCase(levelStr)) {
-            return LOG_LEVEL_TRACE;
-        } else if ("debug".equalsIgnoreCase(levelStr)) {
-            return LOG_LEVEL_DEBUG;
-        } else if ("info".equalsIgnoreCase(levelStr)) {
-            return LOG_LEVEL_INFO;
-        } else if ("warn".equalsIgnoreCase(levelStr)) {
-            return LOG_LEVEL_WARN;
-        } else if ("error".equalsIgnoreCase(levelStr)) {
-            return LOG_LEVEL_ERROR;
-        } else if ("off".equalsIgnoreCase(levelStr)) {
-            return LOG_LEVEL_OFF;
-        }
-        // assume INFO by default
-        return LOG_LEVEL_INFO;
-    }
-
-    /**
-     * This is our internal implementation for logging regular (non-parameterized)
-     * log messages.
-     *
-     * @param level   One of the LOG_LEVEL_XXX constants defining the log level
-     * @param message The message itself
-     * @param t       The exception whose stack trace should be logged
-     */
-    private void log(int level, String message, Throwable t) {
-        if (!isLevelEnabled(level)) {
-            return;
-        }
-
-        StringBuilder buf = new StringBuilder(32);
-        
-        if (includeTime) {
-        	buf.append(timeStampFormatter.format(LocalTime.now()));
-        }
-        
-        if (veryShortName == null) computeVeryShortName(); 
-        
-        //TODO: synchronization issues can play a role here!
-        if (this.longNameHashCode == ConsoleLogger.lastHashCode.getAndSet(longNameHashCode)) {
-        	buf.append(padDots);
-        } else {
-        	buf.append(veryShortName); 
-        }
-
-
-        // Append a readable representation of the log level
-        switch (level) {
-        case LOG_LEVEL_TRACE:
-            buf.append(" t| ");
-            break;
-        case LOG_LEVEL_DEBUG:
-            buf.append(" d| ");
-            break;
-        case LOG_LEVEL_INFO:
-            buf.append(" i| "); 
-            break;
-        case LOG_LEVEL_WARN:
-            buf.append(" W| ");
-            break;
-        case LOG_LEVEL_ERROR:
-            buf.append(" E| ");
-            break;
-        }
-
-        // Append the message
-        buf.append(message);
-
-        write(LOG_LEVEL_WARN <= level ? System.err : System.out, buf, t); 
-
-    }
-
-    void write(PrintStream stream, StringBuilder buf, Throwable t) {
-        stream.println(buf.toString());
-        if (t != null) {
-            t.printStackTrace(stream);
-        }
-        stream.flush();
-    }
-
-    /**
-     * For formatted messages, first substitute arguments and then log.
-     *
-     * @param level
-     * @param format
-     * @param arg1
-     * @param arg2
-     */
-    private void formatAndLog(int level, String format, Object arg1, Object arg2) {
-        if (!isLevelEnabled(level)) {
-            return;
-        }
-        FormattingTuple tp = MessageFormatterEx.format(format, arg1, arg2);
-        log(level, tp.getMessage(), tp.getThrowable());
-    }
-
-    /**
-     * For formatted messages, first substitute arguments and then log.
-     *
-     * @param level
-     * @param format
-     * @param arguments a list of 3 ore more arguments
-     */
-    private void formatAndLog(int level, String format, Object... arguments) {
-        if (!isLevelEnabled(level)) {
-            return;
-        }
-        FormattingTuple tp = MessageFormatterEx.arrayFormat(format, arguments);
-        log(level, tp.getMessage(), tp.getThrowable());
-    }
-
-    /**
-     * Is the given log level currently enabled?
-     *
-     * @param logLevel is this level enabled?
-     */
-    protected boolean isLevelEnabled(int logLevel) {
-        // log level are numerically ordered so can use simple numeric
-        // comparison
-        return (logLevel >= currentLogLevel);
-    }
-
-    /** Are {@code trace} messages currently enabled? */
-    public boolean isTraceEnabled() {
-        return isLevelEnabled(LOG_LEVEL_TRACE);
-    }
-
-    /**
-     * A simple implementation which logs messages of level TRACE according
-     * to the format outlined above.
-     */
-    public void trace(String msg) {
-        log(LOG_LEVEL_TRACE, msg, null);
-    }
-
-    /**
-     * Perform single parameter substitution before logging the message of level
-     * TRACE according to the format outlined above.
-     */
-    public void trace(String format, Object param1) {
-        formatAndLog(LOG_LEVEL_TRACE, format, param1, null);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * TRACE according to the format outlined above.
-     */
-    public void trace(String format, Object param1, Object param2) {
-        formatAndLog(LOG_LEVEL_TRACE, format, param1, param2);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * TRACE according to the format outlined above.
-     */
-    public void trace(String format, Object... argArray) {
-        formatAndLog(LOG_LEVEL_TRACE, format, argArray);
-    }
-
-    /** Log a message of level TRACE, including an exception. */
-    public void trace(String msg, Throwable t) {
-        log(LOG_LEVEL_TRACE, msg, t);
-    }
-
-    /** Are {@code debug} messages currently enabled? */
-    public boolean isDebugEnabled() {
-        return isLevelEnabled(LOG_LEVEL_DEBUG);
-    }
-
-    /**
-     * A simple implementation which logs messages of level DEBUG according
-     * to the format outlined above.
-     */
-    public void debug(String msg) {
-        log(LOG_LEVEL_DEBUG, msg, null);
-    }
-
-    /**
-     * Perform single parameter substitution before logging the message of level
-     * DEBUG according to the format outlined above.
-     */
-    public void debug(String format, Object param1) {
-        formatAndLog(LOG_LEVEL_DEBUG, format, param1, null);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * DEBUG according to the format outlined above.
-     */
-    public void debug(String format, Object param1, Object param2) {
-        formatAndLog(LOG_LEVEL_DEBUG, format, param1, param2);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * DEBUG according to the format outlined above.
-     */
-    public void debug(String format, Object... argArray) {
-        formatAndLog(LOG_LEVEL_DEBUG, format, argArray);
-    }
-
-    /** Log a message of level DEBUG, including an exception. */
-    public void debug(String msg, Throwable t) {
-        log(LOG_LEVEL_DEBUG, msg, t);
-    }
-
-    /** Are {@code info} messages currently enabled? */
-    public boolean isInfoEnabled() {
-        return isLevelEnabled(LOG_LEVEL_INFO);
-    }
-
-    /**
-     * A simple implementation which logs messages of level INFO according
-     * to the format outlined above.
-     */
-    public void info(String msg) {
-        log(LOG_LEVEL_INFO, msg, null);
-    }
-
-    /**
-     * Perform single parameter substitution before logging the message of level
-     * INFO according to the format outlined above.
-     */
-    public void info(String format, Object arg) {
-        formatAndLog(LOG_LEVEL_INFO, format, arg, null);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * INFO according to the format outlined above.
-     */
-    public void info(String format, Object arg1, Object arg2) {
-        formatAndLog(LOG_LEVEL_INFO, format, arg1, arg2);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * INFO according to the format outlined above.
-     */
-    public void info(String format, Object... argArray) {
-        formatAndLog(LOG_LEVEL_INFO, format, argArray);
-    }
-
-    /** Log a message of level INFO, including an exception. */
-    public void info(String msg, Throwable t) {
-        log(LOG_LEVEL_INFO, msg, t);
-    }
-
-    /** Are {@code warn} messages currently enabled? */
-    public boolean isWarnEnabled() {
-        return isLevelEnabled(LOG_LEVEL_WARN);
-    }
-
-    /**
-     * A simple implementation which always logs messages of level WARN according
-     * to the format outlined above.
-     */
-    public void warn(String msg) {
-        log(LOG_LEVEL_WARN, msg, null);
-    }
-
-    /**
-     * Perform single parameter substitution before logging the message of level
-     * WARN according to the format outlined above.
-     */
-    public void warn(String format, Object arg) {
-        formatAndLog(LOG_LEVEL_WARN, format, arg, null);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * WARN according to the format outlined above.
-     */
-    public void warn(String format, Object arg1, Object arg2) {
-        formatAndLog(LOG_LEVEL_WARN, format, arg1, arg2);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * WARN according to the format outlined above.
-     */
-    public void warn(String format, Object... argArray) {
-        formatAndLog(LOG_LEVEL_WARN, format, argArray);
-    }
-
-    /** Log a message of level WARN, including an exception. */
-    public void warn(String msg, Throwable t) {
-        log(LOG_LEVEL_WARN, msg, t);
-    }
-
-    /** Are {@code error} messages currently enabled? */
-    public boolean isErrorEnabled() {
-        return isLevelEnabled(LOG_LEVEL_ERROR);
-    }
-
-    /**
-     * A simple implementation which always logs messages of level ERROR according
-     * to the format outlined above.
-     */
-    public void error(String msg) {
-        log(LOG_LEVEL_ERROR, msg, null);
-    }
-
-    /**
-     * Perform single parameter substitution before logging the message of level
-     * ERROR according to the format outlined above.
-     */
-    public void error(String format, Object arg) {
-        formatAndLog(LOG_LEVEL_ERROR, format, arg, null);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * ERROR according to the format outlined above.
-     */
-    public void error(String format, Object arg1, Object arg2) {
-        formatAndLog(LOG_LEVEL_ERROR, format, arg1, arg2);
-    }
-
-    /**
-     * Perform double parameter substitution before logging the message of level
-     * ERROR according to the format outlined above.
-     */
-    public void error(String format, Object... argArray) {
-        formatAndLog(LOG_LEVEL_ERROR, format, argArray);
-    }
-
-    /** Log a message of level ERROR, including an exception. */
-    public void error(String msg, Throwable t) {
-        log(LOG_LEVEL_ERROR, msg, t);
-    }
-
-    public void log(LoggingEvent event) {
-        int levelInt = event.getLevel().toInt();
-
-        if (!isLevelEnabled(levelInt)) {
-            return;
-        }
-        FormattingTuple tp = MessageFormatterEx.arrayFormat(event.getMessage(), event.getArgumentArray(), event.getThrowable());
-        log(levelInt, tp.getMessage(), event.getThrowable());
-    }
-
-}
+/**
+ * Copyright (c) 2004-2012 QOS.ch
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package org.slf4j.console;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.event.LoggingEvent;
+import org.slf4j.spi.LocationAwareLogger;
+
+
+/**
+ * <p>Simple implementation of a {@link Logger} that requires minimal 
+ * configuration and sends all enabled log messages, for all defined loggers to the console.
+ *  
+ * This logger aims to provide developers with a zero-cost and instant benefit 
+ * transition from using System.out.println() statements to logging. 
+ * Developers only have to add this small jar and the standard SLF4J-api jar to 
+ * their project. They don't have to configure loggers via property files or 
+ * command line arguments; instead they can double-click the jar file 
+ * and quickly set or deactivate any logger with minimal typing. To set the 
+ * class MyClass in com.mypackage.MyClass to trace level, click the add button, 
+ * select a sheet name for your logger configuration, add the following line 
+ * and then click the save button:   
+ * <pre>
+ * com.mypackage.MyClass:trace
+ * </pre>
+ * The level can also be abbreviated by typing only the first letter. To set the 
+ * log level to OFF, deactivating the logger use:
+ * <pre>com.mypackage.MyClass:off</pre>
+ * or
+ * <pre>com.mypackage.MyClass:o</pre>
+ * 
+ * If no log level is specified on subsequent lines or no package name is specified on 
+ * subsequent lines, then the log level of the most recent package will be assigned. 
+ * 
+ * Log levels can also be set via System properties. To set the logger 
+ * <code>com.mypackage.MyClass</code> to the warn level, add a property with the key of 
+ * <code>org.slf4j.console.com.mypackage.MyClass</code> and a value of <code>warn</code>
+ * to System.getProperties(). This can also be set when invoking the Java Virtual Machine
+ * by adding the argument
+ * <pre>
+ * -Dorg.slf4j.console.com.mypackage.MyClass=trace
+ * </pre>
+ * 
+ * Log levels can also be set via a properties file with the name <code>consolelogger.properties</code>.
+ * To set the logger <code>com.mypackage.MyClass</code> to the warn level, add the following 
+ * line to this properties file (in contrast to most other logging properties files, no prefix to the 
+ * class name is needed):
+ * <pre>
+ * com.mypackage.MyClass:warn
+ * </pre> 
+ * 
+ * The log output squarely focuses on the message's content; contextual information is 
+ * kept very short. The output can only be customized in two ways: 
+ * 1) Modify the column width for the logger name. Default is 10 characters. Any logger names that are 
+ * larger than the column width are cut off after this number of characters. Add the line  
+ * <code>width=15</code> to the consolelogger.properties file or <code>-Dorg.slf4j.console.width=15</code> as a command line argument 
+ * when invoking the Java Virtual Machine. 
+ * 2) Add a time stamp to the log output. Add the following line: <code>time=true</code> to the 
+ * consolelogger.properties file or <code>-Dorg.slf4j.console.time=true</code> as a command line argument 
+ * when invoking the Java Virtual Machine.   
+ * 
+ * Running JVMs pick up changes to the logger configuration saved in the Java Preferences, including time 
+ * stamp and column width. Changes saved by other processes (e.g. via the user interface) are only detected 
+ * if the preferences are polled: <code>reloadMillis=2000</code> checks them every 2 seconds. 
+ * 
+ * To keep a hot loop from flooding the console, <code>rateLimit=100</code> limits each logger to 100 statements 
+ * per second and message pattern (<code>rateLimit.com.myapp.Maps=10</code> sets the limit for a logger or package). 
+ * Dropped statements are not formatted; their number is reported once per second, e.g. 
+ * <code>.. suppressed 18234 similar lines</code>. 
+ * 
+ * With <code>deferFormatting=true</code> (in addition to <code>async=true</code>) parameterized messages are 
+ * formatted by the background thread as well. The logging thread only captures the arguments: arrays, dates and 
+ * the java.awt geometry types are copied, strings, numbers and other immutable values are kept as they are, and 
+ * all other objects are converted to text right away (as their state might change before the message is written). 
+ * 
+ * Retry loops often write the same line over and over again. With <code>collapse=true</code> identical 
+ * consecutive lines of a logger are written once, followed by <code>.. (repeated 4211 times)</code> when the 
+ * run ends (or at the latest after one second, change with <code>collapseMillis</code>). 
+ * 
+ * By default log statements are written by the thread that logs them. Add the line <code>async=true</code> 
+ * (or <code>-Dorg.slf4j.console.async=true</code>) to have them written by a background thread instead. 
+ * Statements are then queued in a buffer that holds 1024 statements (change with <code>bufferSize=4096</code>); 
+ * threads only wait for the console if this buffer is full. Queued statements are written before the 
+ * JVM exits. 
+ * 
+ * With <code>output=channel</code> the log statements are encoded and written directly to the 
+ * file descriptors of the standard output and error stream instead of going through {@code System.out}
+ * and {@code System.err}. This saves copying and, combined with <code>async=true</code>, writes many 
+ * statements with a single system call. 
+ * 
+ * Output is flushed after every statement if the JVM runs in an interactive terminal. If the output is 
+ * redirected to a file or a pipe it is buffered and flushed when 8192 characters have accumulated 
+ * (<code>flushBytes</code>), every 1000 milliseconds (<code>flushMillis</code>), after each WARN or ERROR 
+ * statement (<code>flushOnError=false</code> disables this) and when the JVM exits. Use <code>flush=immediate</code> 
+ * or <code>flush=buffered</code> to override the automatic choice. 
+ * 
+ * All statements pass through a single sequencer which keeps them in order. By default statements 
+ * of level WARN and ERROR are sent to the error stream. The property <code>stderr</code> lists the levels
+ * that go to the error stream: <code>stderr=none</code> merges all statements into the standard output, 
+ * <code>stderr=all</code> into the error stream, and <code>stderr=error</code> sends only ERROR statements 
+ * to the error stream. With <code>sequence=true</code> each line starts with its global sequence number. 
+ * 
+ * To find out where a statement comes from, append <code>+location</code> to the level of a logger or package 
+ * (<code>com.mypackage.MyClass:debug+location</code>). Each of its statements then starts with the class, method 
+ * and line that called the logger, in a column of 24 characters (<code>locationWidth</code>). 
+ * 
+ * Consecutive lines of the same logger show two dots instead of the logger name. With <code>group=thread</code>
+ * lines are only grouped if they also come from the same thread, <code>group=none</code> always shows the name. 
+ * 
+ * An example output is shown below. Logger names are cut off after 10 characters
+ * and levels are abbreviated to a single character. 
+ * 
+ * By default, every logger is set to info level. All levels except error are sent 
+ * to {@code System.out} and the error level is sent to ({@code System.err}). 
+ *   
+ * 
+ *  <pre>
+AppView    d| display dimensions 960x880
+..         d| initializing to array size 1020000
+..         d| channel caption 0 size 180
+PulseChann d| started 2017-01-12T14:33:47 
+GraphAnaly t| channel 1 size 114
+..         t| channel 2 size 8597
+..         t| channel 3 size 0
+..         W| Channel 3 is empty!
+..         d| retrieved 3 edges
+ScopeFrame d| channels: 3
+PulseChann d| sample rate 100000.0
+..         d| series count 362
+..         d| sample rate 100000.0
+..         d| series count 8
+</pre>
+ * 
+ *
+ * <p>This implementation was derived from org.slf4j's SimpleLogger 
+ * class (in package org.slf4j.impl) which was authored by</p>
+ * <p>
+ * @author Ceki G&uuml;lc&uuml;
+ * @author <a href="mailto:sanders@apache.org">Scott Sanders</a>
+ * @author Rod Waldhoff
+ * @author Robert Burrell Donkin
+ * @author C&eacute;drik LIME<br>
+ * and which in turn was heavily inspired by  
+ *
+ * <a href="http://commons.apache.org/logging/">Apache Commons Logging</a>'s SimpleLog.</p>
+ * </p>
+ */
+public class ConsoleLogger implements Logger, Serializable {
+
+    private static final long serialVersionUID = -632788891211436180L;
+
+    private static final int LOG_LEVEL_TRACE = LocationAwareLogger.TRACE_INT;
+    private static final int LOG_LEVEL_DEBUG = LocationAwareLogger.DEBUG_INT;
+    private static final int LOG_LEVEL_INFO = LocationAwareLogger.INFO_INT;
+    private static final int LOG_LEVEL_WARN = LocationAwareLogger.WARN_INT;
+    private static final int LOG_LEVEL_ERROR = LocationAwareLogger.ERROR_INT;
+    
+    // The OFF level can only be used in configuration files to disable logging. It has
+    // no printing method associated with it in o.s.Logger interface.
+    private static final int LOG_LEVEL_OFF = LOG_LEVEL_ERROR + 10;
+
+    private static int DEFAULT_LOG_LEVEL = LOG_LEVEL_INFO;
+
+    public static final String LOG_KEY_PREFIX = "org.slf4j.console.";
+    
+    /** Prefix for a property that determines that time values (minutes, seconds and nanos) should 
+     * be included in the log output. Existence of this key (no matter what the value is) 
+     * will lead to time being displayed.  */
+    public static final String KEY_INCLUDE_TIME = LOG_KEY_PREFIX+"time";
+    
+    /** Prefix for a property that determines the fixed width used to display the logger name. 
+     *  Default value is set to 12.  */
+    public static final String KEY_WIDTH = LOG_KEY_PREFIX+"width";
+    
+    /** Key for a property that determines that log statements are written to the console by a 
+     *  background thread (value <code>true</code>) instead of the thread that logs them. */
+    public static final String KEY_ASYNC = LOG_KEY_PREFIX+"async";
+    
+    /** Key for a property that determines how many log statements can be queued when 
+     *  {@link #KEY_ASYNC} is set. Default value is 1024. */
+    public static final String KEY_BUFFER_SIZE = LOG_KEY_PREFIX+"bufferSize";
+    
+    /** Key for a property that selects where log statements are written to: <code>console</code> 
+     *  (the default) writes to {@code System.out} and {@code System.err}, <code>channel</code> writes 
+     *  directly to the file descriptors of the standard output and error stream, <code>mapped</code> 
+     *  writes to the file {@link #KEY_FILE} through a memory-mapped region and <code>rolling</code> 
+     *  writes to the file {@link #KEY_FILE}, which is rolled over by size and time. <code>binary</code> 
+     *  writes unformatted statements to the file {@link #KEY_FILE}, see {@link BinaryLogRenderer}. */
+    public static final String KEY_OUTPUT = LOG_KEY_PREFIX+"output";
+    
+    /** Key for a property that selects the layout of the lines: <code>text</code> (the default) or <code>json</code> 
+     *  (one JSON object per line with time, level, logger, thread, message, arguments and exception). */
+    public static final String KEY_FORMAT = LOG_KEY_PREFIX+"format";
+    
+    /** Key for a property with a comma separated list of MDC keys whose values are shown in front 
+     *  of the message, e.g. <code>requestId,user</code>. */
+    public static final String KEY_MDC = LOG_KEY_PREFIX+"mdc";
+    
+    /** Key for a property with the path of the log file used by <code>output=mapped</code>, <code>rolling</code> 
+     *  and <code>binary</code>. 
+     *  Lines are appended if the file exists. */
+    public static final String KEY_FILE = LOG_KEY_PREFIX+"file";
+    
+    /** Key for a property that determines the size in MB by which a memory-mapped log file grows. 
+     *  Default value is 16. */
+    public static final String KEY_MAP_SIZE = LOG_KEY_PREFIX+"mapSize";
+    
+    /** Key for a property that determines the size in MB at which a rolling log file is rolled over. 
+     *  Default value is 10, 0 = no size limit. */
+    public static final String KEY_ROLL_SIZE = LOG_KEY_PREFIX+"rollSize";
+    
+    /** Key for a property that determines when a rolling log file is rolled over regardless of its size: 
+     *  <code>daily</code> (the default), <code>hourly</code> or <code>none</code>. */
+    public static final String KEY_ROLL_PERIOD = LOG_KEY_PREFIX+"rollPeriod";
+    
+    /** Key for a property that determines how many rolled-over (compressed) log files are kept. 
+     *  Default value is 7, 0 = all files are kept. */
+    public static final String KEY_MAX_FILES = LOG_KEY_PREFIX+"maxFiles";
+    
+    /** Key for a property that determines when output is flushed: <code>immediate</code> (after every statement), 
+     *  <code>buffered</code> or <code>auto</code> (the default: immediate for interactive terminals, buffered if 
+     *  output is redirected to a file or pipe). */
+    public static final String KEY_FLUSH = LOG_KEY_PREFIX+"flush";
+    
+    /** Key for a property that determines whether parameterized messages are formatted by the background 
+     *  thread instead of the thread that logs them (only used with <code>async=true</code>). Default value is false. */
+    public static final String KEY_DEFER_FORMATTING = LOG_KEY_PREFIX+"deferFormatting";
+    
+    /** Key for a property that determines the interval in milliseconds at which the Java Preferences are checked 
+     *  for configuration changes saved by other processes. Default value is 0, which only reacts to changes made 
+     *  within the same JVM (without a thread or disk access of its own), -1 disables reloading. */
+    public static final String KEY_RELOAD_MILLIS = LOG_KEY_PREFIX+"reloadMillis";
+    
+    /** Key for a property that limits the number of statements per second a logger writes with the same 
+     *  message pattern (default 0 = no limit). Limits for individual loggers and packages are set with 
+     *  <code>rateLimit.&lt;name&gt;</code>. */
+    public static final String KEY_RATE_LIMIT = LOG_KEY_PREFIX+"rateLimit";
+    
+    /** Key for a property that determines how many statements with the same pattern may be written 
+     *  in a burst before the rate limit applies (default: the rate limit). */
+    public static final String KEY_RATE_LIMIT_BURST = LOG_KEY_PREFIX+"rateLimitBurst";
+    
+    /** Key for a property that determines the width of the location column shown for loggers whose level 
+     *  is followed by <code>+location</code> (e.g. <code>com.myapp.Maps:debug+location</code>). Default value is 24, 
+     *  0 = no fixed width. */
+    public static final String KEY_LOCATION_WIDTH = LOG_KEY_PREFIX+"locationWidth";
+    
+    /** Prefix of the keys that set the level from which statements with a marker are written, regardless of 
+     *  the level of the logger: <code>marker.SECURITY=trace</code> writes all statements with the SECURITY marker, 
+     *  <code>marker.PERF=off</code> none with the PERF marker. */
+    public static final String KEY_MARKER = LOG_KEY_PREFIX+"marker";
+    
+    /** Key for a property that limits the number of characters used for a single argument. Arrays, collections 
+     *  and maps are shortened to head and tail, other arguments are cut off. Default value is 1000, 0 = no limit. */
+    public static final String KEY_MAX_ARGUMENT_LENGTH = LOG_KEY_PREFIX+"maxArgumentLength";
+    
+    /** Key for a property that limits the number of characters used for the arguments of a message. 
+     *  Default value is 10000, 0 = no limit. */
+    public static final String KEY_MAX_LINE_LENGTH = LOG_KEY_PREFIX+"maxLineLength";
+    
+    /** Key for a property that determines whether identical consecutive lines of a logger are collapsed 
+     *  into one line <code>(repeated N times)</code>. Default value is false. */
+    public static final String KEY_COLLAPSE = LOG_KEY_PREFIX+"collapse";
+    
+    /** Key for a property that determines after how many milliseconds a run of repeated lines is 
+     *  reported even if it has not ended yet. Default value is 1000. */
+    public static final String KEY_COLLAPSE_MILLIS = LOG_KEY_PREFIX+"collapseMillis";
+    
+    /** Key for a property that determines after how many characters buffered output is flushed. 
+     *  Default value is 8192, 0 disables this trigger. */
+    public static final String KEY_FLUSH_BYTES = LOG_KEY_PREFIX+"flushBytes";
+    
+    /** Key for a property that determines the interval in milliseconds at which buffered output is flushed. 
+     *  Default value is 1000, 0 disables the timer. */
+    public static final String KEY_FLUSH_MILLIS = LOG_KEY_PREFIX+"flushMillis";
+    
+    /** Key for a property that determines whether buffered output is flushed after each WARN or ERROR 
+     *  statement. Default value is true. */
+    public static final String KEY_FLUSH_ON_ERROR = LOG_KEY_PREFIX+"flushOnError";
+    
+    /** Key for a property that lists the levels which are sent to the error stream (e.g. <code>warn,error</code>, 
+     *  which is the default). <code>none</code> and <code>all</code> merge all statements into one stream. */
+    public static final String KEY_STDERR = LOG_KEY_PREFIX+"stderr";
+    
+    /** Key for a property that determines that each line is prefixed with its global sequence number 
+     *  (value <code>true</code>). */
+    public static final String KEY_SEQUENCE = LOG_KEY_PREFIX+"sequence";
+    
+    /** Key for a property that determines when consecutive lines are grouped (the logger name replaced by two dots): 
+     *  <code>logger</code> (the default) if they come from the same logger, <code>thread</code> if they come from the 
+     *  same logger and the same thread, <code>none</code> never. */
+    public static final String KEY_GROUP = LOG_KEY_PREFIX+"group";
+    
+    /** This key is used for storing logger definitions to preferences via {@link ConfigFrame} */
+    static final String KEY_PREFERENCES_LOGGER_BLOB = LOG_KEY_PREFIX+"loggers";
+
+    /** This key determines which preferences group is active */
+	static final String KEY_PREFERENCES_ATTRIBUTE_SELECTED_GROUP = "selected";
+	
+	/** The text attribute of a logger group (refers to the text which contains 
+	 *  the various logger definition statements). */
+	static final String KEY_PREFERENCES_ATTRIBUTE_TEXT = "text";
+	
+	static final String KEY_PREFERENCES_ATTRIBUTE_TIMESTAMP = "";	
+    
+    static final int DEFAULT_LOGGER_COLUMN_WIDTH = 10;
+    
+    static final int DEFAULT_BUFFER_SIZE = 1024;
+    
+    static final int DEFAULT_RELOAD_MILLIS = 0;
+    
+    static final int DEFAULT_ROLL_SIZE = 10;
+    
+    static final int DEFAULT_MAX_FILES = 7;
+    
+    static final int DEFAULT_LOCATION_WIDTH = 24;
+    
+    /** Option of a level that turns on the location column (<code>debug+location</code>) */
+    static final String LEVEL_OPTION_LOCATION = "location";
+
+    
+    private static final String DEFAULT_PAD = "          "; 
+    
+    private static volatile boolean includeTime;
+    private static volatile int loggerNameLength = DEFAULT_LOGGER_COLUMN_WIDTH;
+    private static volatile String pad =     DEFAULT_PAD;
+    private static volatile String padDots = "..        ";
+    private static volatile int locationWidth = DEFAULT_LOCATION_WIDTH;
+    
+    /** Incremented whenever the configuration is reloaded */
+    private static volatile int configGeneration; 
+    
+    private static PreferencesWatcher preferencesWatcher; 
+    
+    /** Sequencer through which all log statements are written */
+    private static volatile ConsoleWriter writer = new ConsoleWriter(new PrintStreamOutput(0), FlushPolicy.IMMEDIATE, 
+    		ConsoleWriter.defaultErrorStreamLevels(), false, false, padDots, ConsoleWriter.GROUP_BY_LOGGER, -1, false, null); 
+    
+    private static Timer flushTimer; 
+    private static Thread shutdownHook; 
+    
+    /** Writes log statements in the background if {@link #KEY_ASYNC} is set, otherwise null. */
+    private static volatile AsyncConsoleWriter asyncWriter; 
+    
+    /** Writes unformatted log statements to a file if <code>output=binary</code>, otherwise null. 
+     *  Replaces the writers above. */
+    private static volatile BinaryLogWriter binaryWriter; 
+    
+    /** The name of the logger */
+    protected String name;
+    
+    /** The current log level */
+    protected int currentLogLevel = LOG_LEVEL_INFO;
+    
+    /** True if the level of the logger is followed by <code>+location</code>: each statement starts 
+     *  with the class, method and line that called the logger */
+    private transient boolean showLocation;
+    
+    /** Configuration generation for which {@link #currentLogLevel} was computed */
+    private transient int levelGeneration;
+    
+    /** Limits the statements per message pattern (null if there is no limit) */
+    private transient RateLimiter rateLimiter;
+
+    /** Package access: allows only {@link ConsoleLoggerFactory} to instantiate
+     * ConsoleLogger instances.     */
+    ConsoleLogger(String name) {
+        this.name = name;
+        refreshLevel();
+    }
+    
+    /** (Re-)computes the level from the current configuration */
+    private void refreshLevel() {
+        int generation = configGeneration;
+        String levelString = recursivelyComputeLevelString();
+        boolean location = false;
+        if (levelString != null) {
+            int option = levelString.indexOf('+');
+            if (option >= 0) {
+                location = isLocationOption(levelString.substring(option+1));
+                levelString = levelString.substring(0, option).trim();
+            }
+            this.currentLogLevel = stringToLevel(levelString);
+        } else {
+            this.currentLogLevel = DEFAULT_LOG_LEVEL;
+        }
+        this.showLocation = location;
+        this.veryShortName = null; //column width may have changed
+        this.rateLimiter = (currentLogLevel == LOG_LEVEL_OFF) ? null : RateLimiter.forLogger(this, CONFIG_PARAMS);
+        this.levelGeneration = generation;
+    }
+
+    private static boolean INITIALIZED = false;   
+    static volatile ConsoleLoggerConfiguration CONFIG_PARAMS = null;    
+    
+    static void lazyInit() {
+        if (INITIALIZED) {
+            return;
+        }
+        INITIALIZED = true;
+        init();
+    }
+    
+    // external software might be invoking this method directly. Do not rename
+    // or change its semantics.
+    static void init() {
+    	loadConfiguration();
+    	
+    	if (flushTimer != null) {
+    		flushTimer.cancel();
+    		flushTimer = null;
+    	}
+    	closeOutput();
+    	FlushPolicy policy = FlushPolicy.fromConfiguration(CONFIG_PARAMS);
+    	String type = CONFIG_PARAMS.getStringProperty(KEY_OUTPUT, "console"); 
+    	BinaryLogWriter binary = null; 
+    	if ("binary".equalsIgnoreCase(type)) {
+    		binary = createBinaryWriter(policy); 
+    		type = "console"; 
+    	}
+    	ConsoleOutput output = createOutput(type, policy);
+    	writer = ConsoleWriter.fromConfiguration(output, policy, CONFIG_PARAMS, includeTime, padDots);
+    	binaryWriter = binary; 
+    	if (binary == null && CONFIG_PARAMS.getBooleanProperty(KEY_ASYNC, false)) {
+    		AsyncConsoleWriter async = new AsyncConsoleWriter(writer, CONFIG_PARAMS.getIntProperty(KEY_BUFFER_SIZE, DEFAULT_BUFFER_SIZE), 
+    				writer.keepsArguments() || CONFIG_PARAMS.getBooleanProperty(KEY_DEFER_FORMATTING, false));
+    		async.start(); 
+    		asyncWriter = async; 
+    	}
+    	int timerMillis = policy.maxMillis; 
+    	if (writer.collapseMillis() > 0 && (timerMillis == 0 || writer.collapseMillis() < timerMillis)) {
+    		timerMillis = writer.collapseMillis(); 
+    	}
+    	if (timerMillis > 0) {
+    		flushTimer = new Timer("ConsoleLogger-flush", true);
+    		flushTimer.schedule(new TimerTask() {
+				public void run() {
+					writer.flushIfPending();
+					BinaryLogWriter binary = binaryWriter; 
+					if (binary != null) {
+						binary.flushIfPending(); 
+					}
+				}
+			}, timerMillis, timerMillis);
+    	}
+    	if (preferencesWatcher != null) {
+    		preferencesWatcher.stop();
+    		preferencesWatcher = null;
+    	}
+    	int reloadMillis = CONFIG_PARAMS.getIntProperty(KEY_RELOAD_MILLIS, DEFAULT_RELOAD_MILLIS);
+    	if (reloadMillis >= 0 && ConsoleLoggerConfiguration.canUsePreferences()) {
+    		preferencesWatcher = PreferencesWatcher.start(reloadMillis);
+    	}
+    	if (shutdownHook == null) {
+    		shutdownHook = new Thread(new Runnable() {
+    			public void run() {
+    				closeOutput();
+    			}
+    		}, "ConsoleLogger-shutdown");
+    		Runtime.getRuntime().addShutdownHook(shutdownHook);
+    	}
+    }    
+    
+    /** Loads the configuration and determines time stamp and column width. */
+    private static void loadConfiguration() {
+    	ConsoleLoggerConfiguration config = new ConsoleLoggerConfiguration();
+    	config.loadProperties();
+    	CONFIG_PARAMS = config;
+    	String time = config.getStringProperty(KEY_INCLUDE_TIME); 
+    	includeTime = ( time != null && !"false".equalsIgnoreCase(time.trim()) );
+    	
+    	int width = DEFAULT_LOGGER_COLUMN_WIDTH; 
+    	String newPad = DEFAULT_PAD; 
+    	String w = config.getStringProperty(KEY_WIDTH); 
+    	if (w != null) {
+    		try {
+    			width = Math.max(0, Integer.parseInt(w.trim())); 
+    			StringBuilder sb = new StringBuilder(); 
+    			for (int i=0;i< (width==0 ? 0 : width+1);i++) {
+    				sb.append(' ');
+    			}
+    			newPad = sb.toString();
+    		} catch (NumberFormatException ex) {
+    			System.err.println("Console logger width ("+w+") is not a valid integer value (NumberFormatException). Using default width instead.");
+    		}
+    	}
+    	BoundedRenderer.configure(config.getIntProperty(KEY_MAX_ARGUMENT_LENGTH, BoundedRenderer.DEFAULT_MAX_ARGUMENT_LENGTH), 
+    			config.getIntProperty(KEY_MAX_LINE_LENGTH, BoundedRenderer.DEFAULT_MAX_LINE_LENGTH));
+    	locationWidth = Math.max(0, config.getIntProperty(KEY_LOCATION_WIDTH, DEFAULT_LOCATION_WIDTH)); 
+    	loggerNameLength = width; 
+    	pad = newPad; 
+    	padDots = newPad.length() > 2 ? ".." + newPad.substring(2) : newPad; 
+    }
+    
+    /** Called by the {@link PreferencesWatcher} when the configuration has been changed. 
+     *  Loggers pick up their new level (and name column) the next time they are used. */
+    static synchronized void reloadConfiguration() {
+    	loadConfiguration(); 
+    	writer.setLayout(includeTime, padDots);
+    	configGeneration++; 
+    }
+    
+    /** Writes all pending log statements. Statements logged afterwards are written and 
+     *  flushed immediately. */
+    private static void closeOutput() {
+    	AsyncConsoleWriter async = asyncWriter; 
+    	if (async != null) {
+    		async.close();
+    		asyncWriter = null;
+    	}
+    	BinaryLogWriter binary = binaryWriter; 
+    	if (binary != null) {
+    		binary.close(); 
+    	}
+    	writer.close();
+    }
+    
+    /** Sequencer that currently writes the log statements (used by the {@link BinaryLogRenderer}) */
+    static ConsoleWriter currentWriter() {
+    	return writer; 
+    }
+    
+    private static ConsoleOutput createOutput(String type, FlushPolicy policy) {
+    	if ("channel".equalsIgnoreCase(type)) {
+    		return new ChannelOutput();
+    	}
+    	if ("mapped".equalsIgnoreCase(type) || "rolling".equalsIgnoreCase(type)) {
+    		ConsoleOutput output = createFileOutput(type); 
+    		if (output != null) {
+    			return output; 
+    		}
+    		type = "console"; 
+    	}
+    	if (!"console".equalsIgnoreCase(type)) {
+    		System.err.println("Console logger output ("+type+") is unknown. Writing to the console instead.");
+    	}
+    	return new PrintStreamOutput(policy.immediate ? 0 : Math.max(FlushPolicy.DEFAULT_FLUSH_BYTES, policy.maxChars)); 
+    }
+    
+    /** Returns the log file, or null (with a message) if it hasn't been configured */
+    private static File configuredFile(String type) {
+    	String path = CONFIG_PARAMS.getStringProperty(KEY_FILE); 
+    	if (path == null || path.trim().isEmpty()) {
+    		System.err.println("Console logger output ("+type+") requires a file ("+KEY_FILE+"). Writing to the console instead.");
+    		return null; 
+    	}
+    	return new File(path.trim()); 
+    }
+    
+    private static BinaryLogWriter createBinaryWriter(FlushPolicy policy) {
+    	File file = configuredFile("binary"); 
+    	if (file == null) {
+    		return null; 
+    	}
+    	try {
+    		return new BinaryLogWriter(file, policy.immediate); 
+    	} catch (IOException ex) {
+    		System.err.println("Console logger can't open the log file "+file+" ("+ex+"). Writing to the console instead.");
+    		return null; 
+    	}
+    }
+    
+    private static ConsoleOutput createFileOutput(String type) {
+    	File file = configuredFile(type); 
+    	if (file == null) {
+    		return null; 
+    	}
+    	try {
+    		if ("rolling".equalsIgnoreCase(type)) {
+    			return createRollingOutput(file); 
+    		}
+    		return createMappedOutput(file); 
+    	} catch (IOException ex) {
+    		System.err.println("Console logger can't open the log file "+file+" ("+ex+"). Writing to the console instead.");
+    		return null; 
+    	}
+    }
+    
+    private static ConsoleOutput createRollingOutput(File file) throws IOException {
+    	int rollSize = CONFIG_PARAMS.getIntProperty(KEY_ROLL_SIZE, DEFAULT_ROLL_SIZE); 
+    	if (rollSize < 0) {
+    		System.err.println("Console logger roll size ("+rollSize+") must not be negative. Using default ("+DEFAULT_ROLL_SIZE+") instead.");
+    		rollSize = DEFAULT_ROLL_SIZE; 
+    	}
+    	String p = CONFIG_PARAMS.getStringProperty(KEY_ROLL_PERIOD, "daily"); 
+    	int period = RollingFileOutput.PERIOD_DAILY; 
+    	if ("hourly".equalsIgnoreCase(p)) {
+    		period = RollingFileOutput.PERIOD_HOURLY; 
+    	} else if ("none".equalsIgnoreCase(p)) {
+    		period = RollingFileOutput.PERIOD_NONE; 
+    	} else if (!"daily".equalsIgnoreCase(p)) {
+    		System.err.println("Console logger roll period ("+p+") is unknown. Using daily instead.");
+    	}
+    	int maxFiles = Math.max(0, CONFIG_PARAMS.getIntProperty(KEY_MAX_FILES, DEFAULT_MAX_FILES)); 
+    	return new RollingFileOutput(file, (long) rollSize << 20, period, maxFiles); 
+    }
+    
+    private static ConsoleOutput createMappedOutput(File file) throws IOException {
+    	int mapSize = CONFIG_PARAMS.getIntProperty(KEY_MAP_SIZE, MappedFileOutput.DEFAULT_CHUNK_SIZE >> 20); 
+    	if (mapSize < 1 || mapSize > 1024) {
+    		System.err.println("Console logger map size ("+mapSize+") must be between 1 and 1024 MB. Using default ("
+    				+(MappedFileOutput.DEFAULT_CHUNK_SIZE >> 20)+") instead.");
+    		mapSize = MappedFileOutput.DEFAULT_CHUNK_SIZE >> 20; 
+    	}
+    	return new MappedFileOutput(file, mapSize << 20);
+    }
+    
+    private transient String veryShortName; 
+    
+    /** Returns the column with the logger name: the simple name, cut off or padded to the column width */
+    String nameColumn() {
+    	if (veryShortName == null) {
+    		computeVeryShortName();
+    	}
+    	return veryShortName; 
+    }
+    
+    private void computeVeryShortName() { 
+    	String pad = ConsoleLogger.pad; 
+    	int length = Math.min(loggerNameLength, pad.length()); //width and pad may be changed concurrently
+    	int posF = name.lastIndexOf('.')+1;
+    	String shortName;
+    	if (name.endsWith("_T") || name.endsWith("_D")) {
+    		shortName = name.substring(posF,Math.min(name.length()-2, posF+length));
+    	} else {
+    		shortName = name.substring(posF,Math.min(name.length(), posF+length)); 	
+    	}
+   		veryShortName = shortName + pad.substring(0, pad.length()-shortName.length()); //one empty space after short name
+    }
+    
+    String recursivelyComputeLevelString() {
+    	//allows us to quickly set loggers into debug or trace mode when debugging
+//    	if (name.endsWith("_T")) {
+//    		reportLevelEscalation(true);
+//    		return "trace";
+//    	} else if (name.endsWith("_D")) {
+//    		reportLevelEscalation(false);
+//    		return "debug"; 
+//    	}
+    	
+        return CONFIG_PARAMS.getLevel(name);
+    }
+    
+    /** Write information to log that we have a level escalation where developer has 
+     *  appended _D or _T to the name of the logger, which switches the logger into a 
+     *  debug or trace mode.  */
+    private void reportLevelEscalation(boolean traceLevel) {
+    	int posF = name.lastIndexOf('.')+1;
+    	String shortName = name.substring(posF, name.length()-2);
+    	String txt = name.substring(0,posF-1); 
+    	if (txt.startsWith("class ")) txt = txt.substring(6);
+    	log(LOG_LEVEL_INFO, null, (traceLevel ? "+\"_T\" => TRACE " : "+\"_D\" => DEBUG ") + shortName + " ("+txt+")",null);
+    			
+    }
+
+    /** Returns true if the option following the '+' of a level (e.g. <code>debug+location</code>) turns 
+     *  on the location column: <code>location</code> or an abbreviation of it such as <code>l</code>. 
+     *  Other options are ignored (and reported when the configuration is loaded). */
+    static boolean isLocationOption(String option) {
+        String o = option.trim().toLowerCase(Locale.ROOT);
+        return !o.isEmpty() && LEVEL_OPTION_LOCATION.startsWith(o);
+    }
+
+    static int stringToLevel(String levelStr) {
+        if ("trace".equalsIgnoreCase(levelStr)) {
+            return LOG_LEVEL_TRACE;
+        } else if ("debug".equalsIgnoreCase(levelStr)) {
+            return LOG_LEVEL_DEBUG;
+        } else if ("info".equalsIgnoreCase(levelStr)) {
+            return LOG_LEVEL_INFO;
+        } else if ("warn".equalsIgnoreCase(levelStr)) {
+            return LOG_LEVEL_WARN;
+        } else if ("error".equalsIgnoreCase(levelStr)) {
+            return LOG_LEVEL_ERROR;
+        } else if ("off".equalsIgnoreCase(levelStr)) {
+            return LOG_LEVEL_OFF;
+        }
+        // assume INFO by default
+        return LOG_LEVEL_INFO;
+    }
+
+    /**
+     * This is our internal implementation for logging regular (non-parameterized)
+     * log messages.
+     *
+     * @param level   One of the LOG_LEVEL_XXX constants defining the log level
+     * @param marker  The marker of the statement (may be null)
+     * @param message The message itself
+     * @param t       The exception whose stack trace should be logged
+     */
+    private void log(int level, Marker marker, String message, Throwable t) {
+        if (!isLevelEnabled(level, marker) || isRateLimited(level, message)) {
+            return;
+        }
+        if (showLocation) {
+            writeWithLocation(level, message, null, 0, t);
+            return;
+        }
+        write(level, message, t);
+    }
+
+    /** Formats the message behind the location of the caller and writes it. Used instead of the 
+     *  deferred formatting of the asynchronous writer and the JSON and binary formats, as the 
+     *  location has to be determined by the thread that logs the statement. */
+    private void writeWithLocation(int level, String format, Object[] args, int argCount, Throwable t) {
+        LogBuffers buffers = LogBuffers.acquire();
+        try {
+            CallerLocation.append(buffers.message, locationWidth);
+            MessageFormatterEx.appendFormatted(buffers.message, format, args, argCount);
+            write(level, buffers.message, t);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /** Hands the message over to the sequencer (directly or via the asynchronous writer). 
+     *  The sequencer renders the line and decides whether the logger name is shown 
+     *  or replaced by dots. */
+    void write(int level, CharSequence message, Throwable t) {
+        long millis = System.currentTimeMillis();
+        long threadId = Thread.currentThread().getId();
+        BinaryLogWriter binary = binaryWriter;
+        if (binary != null) {
+            binary.write(this, level, millis, threadId, message, t);
+            return;
+        }
+        AsyncConsoleWriter async = asyncWriter;
+        if (async != null && async.publish(this, level, millis, threadId, message, t)) {
+            return;
+        }
+        writer.write(this, level, millis, threadId, message, t);
+    }
+
+    /**
+     * For formatted messages, first substitute arguments and then log.
+     *
+     * @param level
+     * @param marker
+     * @param format
+     * @param arg1
+     * @param arg2
+     * @param count number of arguments passed by the caller (1 or 2)
+     */
+    private void formatAndLog(int level, Marker marker, String format, Object arg1, Object arg2, int count) {
+        if (!isLevelEnabled(level, marker) || isRateLimited(level, format)) {
+            return;
+        }
+        Throwable t = (count == 2 && arg2 instanceof Throwable) ? (Throwable) arg2 : null;
+        int argCount = (t == null) ? count : 1;
+        if (showLocation) {
+            writeWithLocation(level, format, new Object[] {arg1, arg2}, argCount, t);
+            return;
+        }
+        BinaryLogWriter binary = binaryWriter;
+        if (binary != null) {
+            binary.write(this, level, System.currentTimeMillis(), Thread.currentThread().getId(), format, arg1, arg2, 
+            		argCount, t);
+            return;
+        }
+        AsyncConsoleWriter async = asyncWriter;
+        if (async != null && async.deferFormatting && async.publish(this, level, System.currentTimeMillis(), 
+        		Thread.currentThread().getId(), format, arg1, arg2, argCount, t)) {
+            return;
+        }
+        LogBuffers buffers = LogBuffers.acquire();
+        try {
+            Object[] args = buffers.args;
+            args[0] = arg1;
+            args[1] = arg2;
+            ConsoleWriter w = writer;
+            if (w.keepsArguments()) {
+                w.write(this, level, System.currentTimeMillis(), Thread.currentThread().getId(), format, args, argCount, t);
+                return;
+            }
+            MessageFormatterEx.appendFormatted(buffers.message, format, args, argCount);
+            write(level, buffers.message, t);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * For formatted messages, first substitute arguments and then log.
+     *
+     * @param level
+     * @param marker
+     * @param format
+     * @param arguments a list of 3 ore more arguments
+     */
+    private void formatAndLog(int level, Marker marker, String format, Object... arguments) {
+        if (!isLevelEnabled(level, marker) || isRateLimited(level, format)) {
+            return;
+        }
+        Throwable t = MessageFormatterEx.getThrowableCandidate(arguments);
+        int argCount = (arguments == null) ? 0 : (t == null ? arguments.length : arguments.length - 1);
+        if (showLocation) {
+            writeWithLocation(level, format, arguments, argCount, t);
+            return;
+        }
+        BinaryLogWriter binary = binaryWriter;
+        if (binary != null) {
+            binary.write(this, level, System.currentTimeMillis(), Thread.currentThread().getId(), format, arguments, argCount, t);
+            return;
+        }
+        AsyncConsoleWriter async = asyncWriter;
+        if (async != null && async.deferFormatting && async.publish(this, level, System.currentTimeMillis(), 
+        		Thread.currentThread().getId(), format, arguments, argCount, t)) {
+            return;
+        }
+        ConsoleWriter w = writer;
+        if (w.keepsArguments()) {
+            w.write(this, level, System.currentTimeMillis(), Thread.currentThread().getId(), format, arguments, argCount, t);
+            return;
+        }
+        LogBuffers buffers = LogBuffers.acquire();
+        try {
+            MessageFormatterEx.appendFormatted(buffers.message, format, arguments, argCount);
+            write(level, buffers.message, t);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /** Returns true if the statement has to be dropped because the logger exceeded the rate limit 
+     *  for the message pattern. Checked before the message is formatted. */
+    private boolean isRateLimited(int level, String pattern) {
+        RateLimiter limiter = rateLimiter;
+        return limiter != null && !limiter.tryAcquire(pattern, level);
+    }
+
+    /**
+     * Is the given log level currently enabled?
+     *
+     * @param logLevel is this level enabled?
+     */
+    protected boolean isLevelEnabled(int logLevel) {
+        // the configuration may have been reloaded (see PreferencesWatcher)
+        if (levelGeneration != configGeneration) {
+            refreshLevel();
+        }
+        // log level are numerically ordered so can use simple numeric
+        // comparison
+        return (logLevel >= currentLogLevel);
+    }
+    
+    /** Is the given log level enabled for a statement with the marker? The marker rules of the 
+     *  configuration (see {@link MarkerFilter}) take precedence over the level of the logger. */
+    protected boolean isLevelEnabled(int logLevel, Marker marker) {
+        if (marker != null) {
+            int decision = CONFIG_PARAMS.getMarkerFilter().decide(logLevel, marker);
+            if (decision != MarkerFilter.UNDECIDED) {
+                if (levelGeneration != configGeneration) {
+                    refreshLevel();
+                }
+                return decision == MarkerFilter.ENABLED;
+            }
+        }
+        return isLevelEnabled(logLevel);
+    }
+
+    /** Are {@code trace} messages currently enabled? */
+    public boolean isTraceEnabled() {
+        return isLevelEnabled(LOG_LEVEL_TRACE);
+    }
+
+    /**
+     * A simple implementation which logs messages of level TRACE according
+     * to the format outlined above.
+     */
+    public void trace(String msg) {
+        log(LOG_LEVEL_TRACE, null, msg, null);
+    }
+
+    /**
+     * Perform single parameter substitution before logging the message of level
+     * TRACE according to the format outlined above.
+     */
+    public void trace(String format, Object param1) {
+        formatAndLog(LOG_LEVEL_TRACE, null, format, param1, null, 1);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * TRACE according to the format outlined above.
+     */
+    public void trace(String format, Object param1, Object param2) {
+        formatAndLog(LOG_LEVEL_TRACE, null, format, param1, param2, 2);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * TRACE according to the format outlined above.
+     */
+    public void trace(String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_TRACE, null, format, argArray);
+    }
+
+    /** Log a message of level TRACE, including an exception. */
+    public void trace(String msg, Throwable t) {
+        log(LOG_LEVEL_TRACE, null, msg, t);
+    }
+
+    /** Are {@code trace} messages with the marker currently enabled? */
+    public boolean isTraceEnabled(Marker marker) {
+        return isLevelEnabled(LOG_LEVEL_TRACE, marker);
+    }
+
+    /** Log a message of level TRACE with a marker. */
+    public void trace(Marker marker, String msg) {
+        log(LOG_LEVEL_TRACE, marker, msg, null);
+    }
+
+    /** Log a parameterized message of level TRACE with a marker. */
+    public void trace(Marker marker, String format, Object arg) {
+        formatAndLog(LOG_LEVEL_TRACE, marker, format, arg, null, 1);
+    }
+
+    /** Log a parameterized message of level TRACE with a marker. */
+    public void trace(Marker marker, String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_TRACE, marker, format, arg1, arg2, 2);
+    }
+
+    /** Log a parameterized message of level TRACE with a marker. */
+    public void trace(Marker marker, String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_TRACE, marker, format, argArray);
+    }
+
+    /** Log a message of level TRACE with a marker, including an exception. */
+    public void trace(Marker marker, String msg, Throwable t) {
+        log(LOG_LEVEL_TRACE, marker, msg, t);
+    }
+
+    /** Are {@code debug} messages currently enabled? */
+    public boolean isDebugEnabled() {
+        return isLevelEnabled(LOG_LEVEL_DEBUG);
+    }
+
+    /**
+     * A simple implementation which logs messages of level DEBUG according
+     * to the format outlined above.
+     */
+    public void debug(String msg) {
+        log(LOG_LEVEL_DEBUG, null, msg, null);
+    }
+
+    /**
+     * Perform single parameter substitution before logging the message of level
+     * DEBUG according to the format outlined above.
+     */
+    public void debug(String format, Object param1) {
+        formatAndLog(LOG_LEVEL_DEBUG, null, format, param1, null, 1);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * DEBUG according to the format outlined above.
+     */
+    public void debug(String format, Object param1, Object param2) {
+        formatAndLog(LOG_LEVEL_DEBUG, null, format, param1, param2, 2);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * DEBUG according to the format outlined above.
+     */
+    public void debug(String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_DEBUG, null, format, argArray);
+    }
+
+    /** Log a message of level DEBUG, including an exception. */
+    public void debug(String msg, Throwable t) {
+        log(LOG_LEVEL_DEBUG, null, msg, t);
+    }
+
+    /** Are {@code debug} messages with the marker currently enabled? */
+    public boolean isDebugEnabled(Marker marker) {
+        return isLevelEnabled(LOG_LEVEL_DEBUG, marker);
+    }
+
+    /** Log a message of level DEBUG with a marker. */
+    public void debug(Marker marker, String msg) {
+        log(LOG_LEVEL_DEBUG, marker, msg, null);
+    }
+
+    /** Log a parameterized message of level DEBUG with a marker. */
+    public void debug(Marker marker, String format, Object arg) {
+        formatAndLog(LOG_LEVEL_DEBUG, marker, format, arg, null, 1);
+    }
+
+    /** Log a parameterized message of level DEBUG with a marker. */
+    public void debug(Marker marker, String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_DEBUG, marker, format, arg1, arg2, 2);
+    }
+
+    /** Log a parameterized message of level DEBUG with a marker. */
+    public void debug(Marker marker, String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_DEBUG, marker, format, argArray);
+    }
+
+    /** Log a message of level DEBUG with a marker, including an exception. */
+    public void debug(Marker marker, String msg, Throwable t) {
+        log(LOG_LEVEL_DEBUG, marker, msg, t);
+    }
+
+    /** Are {@code info} messages currently enabled? */
+    public boolean isInfoEnabled() {
+        return isLevelEnabled(LOG_LEVEL_INFO);
+    }
+
+    /**
+     * A simple implementation which logs messages of level INFO according
+     * to the format outlined above.
+     */
+    public void info(String msg) {
+        log(LOG_LEVEL_INFO, null, msg, null);
+    }
+
+    /**
+     * Perform single parameter substitution before logging the message of level
+     * INFO according to the format outlined above.
+     */
+    public void info(String format, Object arg) {
+        formatAndLog(LOG_LEVEL_INFO, null, format, arg, null, 1);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * INFO according to the format outlined above.
+     */
+    public void info(String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_INFO, null, format, arg1, arg2, 2);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * INFO according to the format outlined above.
+     */
+    public void info(String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_INFO, null, format, argArray);
+    }
+
+    /** Log a message of level INFO, including an exception. */
+    public void info(String msg, Throwable t) {
+        log(LOG_LEVEL_INFO, null, msg, t);
+    }
+
+    /** Are {@code info} messages with the marker currently enabled? */
+    public boolean isInfoEnabled(Marker marker) {
+        return isLevelEnabled(LOG_LEVEL_INFO, marker);
+    }
+
+    /** Log a message of level INFO with a marker. */
+    public void info(Marker marker, String msg) {
+        log(LOG_LEVEL_INFO, marker, msg, null);
+    }
+
+    /** Log a parameterized message of level INFO with a marker. */
+    public void info(Marker marker, String format, Object arg) {
+        formatAndLog(LOG_LEVEL_INFO, marker, format, arg, null, 1);
+    }
+
+    /** Log a parameterized message of level INFO with a marker. */
+    public void info(Marker marker, String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_INFO, marker, format, arg1, arg2, 2);
+    }
+
+    /** Log a parameterized message of level INFO with a marker. */
+    public void info(Marker marker, String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_INFO, marker, format, argArray);
+    }
+
+    /** Log a message of level INFO with a marker, including an exception. */
+    public void info(Marker marker, String msg, Throwable t) {
+        log(LOG_LEVEL_INFO, marker, msg, t);
+    }
+
+    /** Are {@code warn} messages currently enabled? */
+    public boolean isWarnEnabled() {
+        return isLevelEnabled(LOG_LEVEL_WARN);
+    }
+
+    /**
+     * A simple implementation which always logs messages of level WARN according
+     * to the format outlined above.
+     */
+    public void warn(String msg) {
+        log(LOG_LEVEL_WARN, null, msg, null);
+    }
+
+    /**
+     * Perform single parameter substitution before logging the message of level
+     * WARN according to the format outlined above.
+     */
+    public void warn(String format, Object arg) {
+        formatAndLog(LOG_LEVEL_WARN, null, format, arg, null, 1);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * WARN according to the format outlined above.
+     */
+    public void warn(String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_WARN, null, format, arg1, arg2, 2);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * WARN according to the format outlined above.
+     */
+    public void warn(String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_WARN, null, format, argArray);
+    }
+
+    /** Log a message of level WARN, including an exception. */
+    public void warn(String msg, Throwable t) {
+        log(LOG_LEVEL_WARN, null, msg, t);
+    }
+
+    /** Are {@code warn} messages with the marker currently enabled? */
+    public boolean isWarnEnabled(Marker marker) {
+        return isLevelEnabled(LOG_LEVEL_WARN, marker);
+    }
+
+    /** Log a message of level WARN with a marker. */
+    public void warn(Marker marker, String msg) {
+        log(LOG_LEVEL_WARN, marker, msg, null);
+    }
+
+    /** Log a parameterized message of level WARN with a marker. */
+    public void warn(Marker marker, String format, Object arg) {
+        formatAndLog(LOG_LEVEL_WARN, marker, format, arg, null, 1);
+    }
+
+    /** Log a parameterized message of level WARN with a marker. */
+    public void warn(Marker marker, String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_WARN, marker, format, arg1, arg2, 2);
+    }
+
+    /** Log a parameterized message of level WARN with a marker. */
+    public void warn(Marker marker, String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_WARN, marker, format, argArray);
+    }
+
+    /** Log a message of level WARN with a marker, including an exception. */
+    public void warn(Marker marker, String msg, Throwable t) {
+        log(LOG_LEVEL_WARN, marker, msg, t);
+    }
+
+    /** Are {@code error} messages currently enabled? */
+    public boolean isErrorEnabled() {
+        return isLevelEnabled(LOG_LEVEL_ERROR);
+    }
+
+    /**
+     * A simple implementation which always logs messages of level ERROR according
+     * to the format outlined above.
+     */
+    public void error(String msg) {
+        log(LOG_LEVEL_ERROR, null, msg, null);
+    }
+
+    /**
+     * Perform single parameter substitution before logging the message of level
+     * ERROR according to the format outlined above.
+     */
+    public void error(String format, Object arg) {
+        formatAndLog(LOG_LEVEL_ERROR, null, format, arg, null, 1);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * ERROR according to the format outlined above.
+     */
+    public void error(String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_ERROR, null, format, arg1, arg2, 2);
+    }
+
+    /**
+     * Perform double parameter substitution before logging the message of level
+     * ERROR according to the format outlined above.
+     */
+    public void error(String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_ERROR, null, format, argArray);
+    }
+
+    /** Log a message of level ERROR, including an exception. */
+    public void error(String msg, Throwable t) {
+        log(LOG_LEVEL_ERROR, null, msg, t);
+    }
+
+    /** Are {@code error} messages with the marker currently enabled? */
+    public boolean isErrorEnabled(Marker marker) {
+        return isLevelEnabled(LOG_LEVEL_ERROR, marker);
+    }
+
+    /** Log a message of level ERROR with a marker. */
+    public void error(Marker marker, String msg) {
+        log(LOG_LEVEL_ERROR, marker, msg, null);
+    }
+
+    /** Log a parameterized message of level ERROR with a marker. */
+    public void error(Marker marker, String format, Object arg) {
+        formatAndLog(LOG_LEVEL_ERROR, marker, format, arg, null, 1);
+    }
+
+    /** Log a parameterized message of level ERROR with a marker. */
+    public void error(Marker marker, String format, Object arg1, Object arg2) {
+        formatAndLog(LOG_LEVEL_ERROR, marker, format, arg1, arg2, 2);
+    }
+
+    /** Log a parameterized message of level ERROR with a marker. */
+    public void error(Marker marker, String format, Object... argArray) {
+        formatAndLog(LOG_LEVEL_ERROR, marker, format, argArray);
+    }
+
+    /** Log a message of level ERROR with a marker, including an exception. */
+    public void error(Marker marker, String msg, Throwable t) {
+        log(LOG_LEVEL_ERROR, marker, msg, t);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Replaces this logger by the logger of the same name when it is deserialized. The state derived 
+     *  from the configuration (location, rate limiter) is transient and comes with that logger. */
+    protected Object readResolve() throws ObjectStreamException {
+        return LoggerFactory.getLogger(getName());
+    }
+
+    public void log(LoggingEvent event) {
+        int levelInt = event.getLevel().toInt();
+
+        if (!isLevelEnabled(levelInt, event.getMarker()) || isRateLimited(levelInt, event.getMessage())) {
+            return;
+        }
+        Object[] args = event.getArgumentArray();
+        if (showLocation) {
+            writeWithLocation(levelInt, event.getMessage(), args, args == null ? 0 : args.length, event.getThrowable());
+            return;
+        }
+        BinaryLogWriter binary = binaryWriter;
+        if (binary != null) {
+            binary.write(this, levelInt, System.currentTimeMillis(), Thread.currentThread().getId(), event.getMessage(), 
+            		args, args == null ? 0 : args.length, event.getThrowable());
+            return;
+        }
+        AsyncConsoleWriter async = asyncWriter;
+        if (async != null && async.deferFormatting && async.publish(this, levelInt, System.currentTimeMillis(), 
+        		Thread.currentThread().getId(), event.getMessage(), args, args == null ? 0 : args.length, event.getThrowable())) {
+            return;
+        }
+        ConsoleWriter w = writer;
+        if (w.keepsArguments()) {
+            w.write(this, levelInt, System.currentTimeMillis(), Thread.currentThread().getId(), event.getMessage(), 
+            		args, args == null ? 0 : args.length, event.getThrowable());
+            return;
+        }
+        LogBuffers buffers = LogBuffers.acquire();
+        try {
+            MessageFormatterEx.appendFormatted(buffers.message, event.getMessage(), args, args == null ? 0 : args.length);
+            write(levelInt, buffers.message, event.getThrowable());
+        } finally {
+            buffers.release();
+        }
+    }
+
+}
@@ -1,116 +1,201 @@
-package org.slf4j.console;
-
-import java.io.InputStream;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-import java.util.Map;
-import java.util.Properties;
-import java.util.prefs.BackingStoreException;
-import java.util.prefs.Preferences;
-
-public class ConsoleLoggerConfiguration {
-
-	private static final String CONFIGURATION_FILE = "consolelogger.properties";
-	
-    private final Properties properties = new Properties();	
-	
-    void loadProperties() {
-    	
-    	loadPreferences();
-    	
-        InputStream in = AccessController.doPrivileged(new PrivilegedAction<InputStream>() {
-            public InputStream run() {
-                ClassLoader threadCL = Thread.currentThread().getContextClassLoader();
-                if (threadCL != null) {
-                    return threadCL.getResourceAsStream(CONFIGURATION_FILE);
-                } else {
-                    return ClassLoader.getSystemResourceAsStream(CONFIGURATION_FILE);
-                }
-            }
-        });
-        if (null != in) {
-            try {
-                Properties tempProp = new Properties(); 
-                tempProp.load(in);
-                for (Map.Entry<Object, Object> it : tempProp.entrySet()) {
-                	if (it.getKey() != null && it.getValue() != null) {
-                		properties.put(ConsoleLogger.LOG_KEY_PREFIX+it.getKey().toString(), it.getValue().toString());
-                	}
-                }
-            } catch (java.io.IOException e) {
-                // ignored
-            } finally {
-                try {
-                    in.close();
-                } catch (java.io.IOException e) {
-                    // ignored
-                }
-            }
-        }
-    }
-    
-    /** Loads logger definitions from the properties (if any are available) */
-    private void loadPreferences() {
-		Preferences prefs = Preferences.userNodeForPackage(ConsoleLoggerConfiguration.class);
-
-		String group = prefs.get(ConsoleLogger.KEY_PREFERENCES_ATTRIBUTE_SELECTED_GROUP, "");
-		try {
-		if (!group.isEmpty() && prefs.nodeExists(group)) {
-			prefs = prefs.node(group);			
-			PrefProps pp = new PrefProps(prefs);
-			pp.toProperties(properties);
-
-			boolean includeTime =  prefs.getBoolean(ConsoleLogger.KEY_INCLUDE_TIME,false);
-			int colWidth = prefs.getInt(ConsoleLogger.KEY_WIDTH, ConsoleLogger.DEFAULT_LOGGER_COLUMN_WIDTH);
-			//TODO: don't copy to system properties...
-			if (includeTime) System.getProperties().put(ConsoleLogger.KEY_INCLUDE_TIME, "1");
-			if (colWidth != ConsoleLogger.DEFAULT_LOGGER_COLUMN_WIDTH) {
-				System.getProperties().put(ConsoleLogger.KEY_WIDTH, String.valueOf(colWidth));
-			}
-		}
-		} catch (BackingStoreException e) {
-			//nothing to do
-		}
-    }
-    
-    String getStringProperty(String name, String defaultValue) {
-        String prop = getStringProperty(name);
-        return (prop == null) ? defaultValue : prop;
-    }
-    
-    String getStringProperty(String name) {
-        String prop = null;
-        try {
-            prop = System.getProperty(name);
-        } catch (SecurityException e) {
-            ; // Ignore
-        }
-        return (prop == null) ? properties.getProperty(name) : prop;
-    }    
-    
-	/** There is a Preferences bug in Java on Windows (before Java 9).
-	 *  https://bugs.openjdk.java.net/browse/JDK-8139507 
-	 *  Thus we can not use the Java Preferences on Windows Systems 
-	 *  running Java 8 or less.  */
-	static boolean canUsePreferences() {
-		
-		if (true) {  //TODO change the way in which 
-			return true;
-		}
-		
-		String version = System.getProperty("java.version");
-		int posF = version.indexOf('.');
-		try {
-			if (9 <= Integer.parseInt(version.substring(0, posF))) {
-				return true; 
-			}
-			
-			return !System.getProperty("os.name").startsWith("Windows");
-			
-		} catch (NumberFormatException ex) {
-			return false; //something is really wrong here...
-		}
-	}
-    
-	
-}
+package org.slf4j.console;
+
+import java.io.InputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Map;
+import java.util.Properties;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+import org.slf4j.spi.LocationAwareLogger;
+
+public class ConsoleLoggerConfiguration {
+
+	private static final String CONFIGURATION_FILE = "consolelogger.properties";
+	
+    private final Properties properties = new Properties();	
+    
+    private LevelIndex levels; 
+    
+    private LevelIndex rateLimits; 
+    
+    private MarkerFilter markers = MarkerFilter.NONE; 
+	
+    void loadProperties() {
+    	
+    	loadPreferences();
+    	
+        InputStream in = AccessController.doPrivileged(new PrivilegedAction<InputStream>() {
+            public InputStream run() {
+                ClassLoader threadCL = Thread.currentThread().getContextClassLoader();
+                if (threadCL != null) {
+                    return threadCL.getResourceAsStream(CONFIGURATION_FILE);
+                } else {
+                    return ClassLoader.getSystemResourceAsStream(CONFIGURATION_FILE);
+                }
+            }
+        });
+        if (null != in) {
+            try {
+                Properties tempProp = new Properties(); 
+                tempProp.load(in);
+                for (Map.Entry<Object, Object> it : tempProp.entrySet()) {
+                	if (it.getKey() != null && it.getValue() != null) {
+                		properties.put(ConsoleLogger.LOG_KEY_PREFIX+it.getKey().toString(), it.getValue().toString());
+                	}
+                }
+            } catch (java.io.IOException e) {
+                // ignored
+            } finally {
+                try {
+                    in.close();
+                } catch (java.io.IOException e) {
+                    // ignored
+                }
+            }
+        }
+        
+        Properties system; 
+        try {
+        	system = (Properties) System.getProperties().clone();
+        } catch (SecurityException e) {
+        	system = new Properties(); 
+        }
+        levels = new LevelIndex(properties, system); 
+        rateLimits = new LevelIndex(ConsoleLogger.KEY_RATE_LIMIT+".", properties, system);
+        markers = MarkerFilter.fromProperties(ConsoleLogger.KEY_MARKER+".", properties, system); 
+        checkLevelOptions(properties); 
+        checkLevelOptions(system); 
+    }
+    
+    /** Reports level definitions with an option that is not known (e.g. <code>debug+loaction</code>) */
+    private static void checkLevelOptions(Map<?,?> definitions) {
+    	for (Map.Entry<?,?> it : definitions.entrySet()) {
+    		if (!(it.getKey() instanceof String) || !(it.getValue() instanceof String) 
+    				|| !((String) it.getKey()).startsWith(ConsoleLogger.LOG_KEY_PREFIX)) {
+    			continue; 
+    		}
+    		String value = (String) it.getValue(); 
+    		int plus = value.indexOf('+'); 
+    		if (plus < 0) {
+    			continue; 
+    		}
+    		String level = value.substring(0, plus).trim(); 
+    		boolean isLevel = ConsoleLogger.stringToLevel(level) != LocationAwareLogger.INFO_INT || "info".equalsIgnoreCase(level); 
+    		if (isLevel && !ConsoleLogger.isLocationOption(value.substring(plus+1))) {
+    			String name = ((String) it.getKey()).substring(ConsoleLogger.LOG_KEY_PREFIX.length()); 
+    			System.err.println("Console logger level of "+name+" ("+value+") has an unknown option. Ignoring the option.");
+    		}
+    	}
+    }
+    
+    /** Returns the level defined for a logger or its nearest enclosing package (null if there is none). 
+     *  System properties that are set after the configuration has been loaded are not taken into account. */
+    String getLevel(String loggerName) {
+    	return levels.getLevel(loggerName); 
+    }
+    
+    /** Returns the number of statements per second allowed for each message of a logger 
+     *  (<code>rateLimit.&lt;logger or package&gt;</code>, or <code>rateLimit</code> if the logger 
+     *  has no limit of its own). 0 means that the logger is not limited. */
+    int getRateLimit(String loggerName) {
+    	String limit = rateLimits.getLevel(loggerName); 
+    	if (limit != null) {
+    		try {
+    			return Math.max(0, Integer.parseInt(limit.trim())); 
+    		} catch (NumberFormatException ex) {
+    			System.err.println("Console logger rate limit for "+loggerName+" ("+limit+") is not a valid integer value (NumberFormatException). Using default value instead.");
+    		}
+    	}
+    	return Math.max(0, getIntProperty(ConsoleLogger.KEY_RATE_LIMIT, 0)); 
+    }
+    
+    /** Returns the marker rules (<code>marker.&lt;name&gt;=&lt;level&gt;</code>) */
+    MarkerFilter getMarkerFilter() {
+    	return markers; 
+    }
+    
+    /** Loads logger definitions from the properties (if any are available) */
+    private void loadPreferences() {
+		Preferences prefs = Preferences.userNodeForPackage(ConsoleLoggerConfiguration.class);
+
+		String group = prefs.get(ConsoleLogger.KEY_PREFERENCES_ATTRIBUTE_SELECTED_GROUP, "");
+		try {
+		if (!group.isEmpty() && prefs.nodeExists(group)) {
+			prefs = prefs.node(group);			
+			PrefProps pp = new PrefProps(prefs);
+			pp.toProperties(properties);
+
+			boolean includeTime =  prefs.getBoolean(ConsoleLogger.KEY_INCLUDE_TIME,false);
+			int colWidth = prefs.getInt(ConsoleLogger.KEY_WIDTH, ConsoleLogger.DEFAULT_LOGGER_COLUMN_WIDTH);
+			//not copied to the system properties, so that they can be changed when the preferences are reloaded
+			if (includeTime) properties.put(ConsoleLogger.KEY_INCLUDE_TIME, "true");
+			if (colWidth != ConsoleLogger.DEFAULT_LOGGER_COLUMN_WIDTH) {
+				properties.put(ConsoleLogger.KEY_WIDTH, String.valueOf(colWidth));
+			}
+		}
+		} catch (BackingStoreException e) {
+			//nothing to do
+		}
+    }
+    
+    String getStringProperty(String name, String defaultValue) {
+        String prop = getStringProperty(name);
+        return (prop == null) ? defaultValue : prop;
+    }
+    
+    boolean getBooleanProperty(String name, boolean defaultValue) {
+        String prop = getStringProperty(name);
+        return (prop == null) ? defaultValue : "true".equalsIgnoreCase(prop.trim());
+    }
+    
+    int getIntProperty(String name, int defaultValue) {
+        String prop = getStringProperty(name);
+        if (prop == null) {
+        	return defaultValue;
+        }
+        try {
+        	return Integer.parseInt(prop.trim());
+        } catch (NumberFormatException ex) {
+        	System.err.println("Console logger property "+name+" ("+prop+") is not a valid integer value (NumberFormatException). Using default value instead.");
+        	return defaultValue;
+        }
+    }
+    
+    String getStringProperty(String name) {
+        String prop = null;
+        try {
+            prop = System.getProperty(name);
+        } catch (SecurityException e) {
+            ; // Ignore
+        }
+        return (prop == null) ? properties.getProperty(name) : prop;
+    }    
+    
+	/** There is a Preferences bug in Java on Windows (before Java 9).
+	 *  https://bugs.openjdk.java.net/browse/JDK-8139507 
+	 *  Thus we can not use the Java Preferences on Windows Systems 
+	 *  running Java 8 or less.  */
+	static boolean canUsePreferences() {
+		
+		if (true) {  //TODO change the way in which 
+			return true;
+		}
+		
+		String version = System.getProperty("java.version");
+		int posF = version.indexOf('.');
+		try {
+			if (9 <= Integer.parseInt(version.substring(0, posF))) {
+				return true; 
+			}
+			
+			return !System.getProperty("os.name").startsWith("Windows");
+			
+		} catch (NumberFormatException ex) {
+			return false; //something is really wrong here...
+		}
+	}
+    
+	
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.slf4j.spi.MDCAdapter;
+
+/** MDC implementation of the console logger. 
+ *  
+ *  Each thread holds an immutable {@link ContextMap}; {@code MDC.put()} and {@code MDC.remove()} 
+ *  replace it with a modified copy. Taking a snapshot of the context (e.g. for the asynchronous 
+ *  writer) is thus just reading the reference. The values of the keys listed in the <code>mdc</code> 
+ *  property are shown in front of the message, JSON lines include the complete context. 
+ *  
+ *  Besides the {@link org.slf4j.MDC} methods, context can be set for a block of code, similar to 
+ *  a scoped value: 
+ *  <pre>
+ *  try (ConsoleMDCAdapter.Scope scope = ConsoleMDCAdapter.open("requestId", id)) {
+ *      handle(request); 
+ *  }
+ *  </pre>
+ *  Closing the scope restores the previous context with a single write, no matter how 
+ *  many entries were added within the block. {@link #wrap(Runnable)} carries the context of the 
+ *  current thread over to a task that runs on another (e.g. virtual) thread. */
+public class ConsoleMDCAdapter implements MDCAdapter {
+
+	private static final ThreadLocal<ContextMap> context = new ThreadLocal<ContextMap>(); 
+	
+	private static final ThreadLocal<Map<String, Deque<String>>> deques = new ThreadLocal<Map<String, Deque<String>>>(); 
+	
+	/** Restores the context that was current when the scope was opened */
+	public static final class Scope implements Closeable {
+		private final ContextMap previous; 
+		
+		private Scope(ContextMap previous) {
+			this.previous = previous; 
+		}
+		
+		public void close() {
+			set(previous); 
+		}
+	}
+	
+	/** Returns the context of the current thread (null if it is empty) */
+	static ContextMap context() {
+		return context.get(); 
+	}
+	
+	private static ContextMap current() {
+		ContextMap map = context.get(); 
+		return map == null ? ContextMap.EMPTY : map; 
+	}
+	
+	private static void set(ContextMap map) {
+		if (map == null || map.size() == 0) {
+			context.remove(); 
+		} else {
+			context.set(map); 
+		}
+	}
+	
+	/** Adds an entry to the context until the returned scope is closed */
+	public static Scope open(String key, String value) {
+		checkKey(key); 
+		ContextMap previous = context.get(); 
+		set(current().with(key, value)); 
+		return new Scope(previous); 
+	}
+	
+	/** Runs the task with an entry added to the context */
+	public static void runWith(String key, String value, Runnable task) {
+		Scope scope = open(key, value); 
+		try {
+			task.run(); 
+		} finally {
+			scope.close(); 
+		}
+	}
+	
+	/** Calls the task with an entry added to the context */
+	public static <T> T callWith(String key, String value, Callable<T> task) throws Exception {
+		Scope scope = open(key, value); 
+		try {
+			return task.call(); 
+		} finally {
+			scope.close(); 
+		}
+	}
+	
+	/** Returns a task that runs with the current context of this thread, on whichever thread it is run */
+	public static Runnable wrap(final Runnable task) {
+		final ContextMap captured = context.get(); 
+		return new Runnable() {
+			public void run() {
+				ContextMap previous = context.get(); 
+				set(captured); 
+				try {
+					task.run(); 
+				} finally {
+					set(previous); 
+				}
+			}
+		};
+	}
+	
+	private static void checkKey(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("key cannot be null");
+		}
+	}
+	
+	public void put(String key, String val) {
+		checkKey(key); 
+		set(current().with(key, val)); 
+	}
+
+	public String get(String key) {
+		ContextMap map = context.get(); 
+		return map == null || key == null ? null : map.get(key); 
+	}
+
+	public void remove(String key) {
+		ContextMap map = context.get(); 
+		if (map != null && key != null) {
+			set(map.without(key)); 
+		}
+	}
+
+	public void clear() {
+		context.remove(); 
+		deques.remove(); 
+	}
+
+	public Map<String, String> getCopyOfContextMap() {
+		ContextMap map = context.get(); 
+		return map == null ? null : map.toMap(); 
+	}
+
+	public void setContextMap(Map<String, String> contextMap) {
+		set(contextMap == null ? null : ContextMap.of(contextMap)); 
+	}
+	
+	// Stacks of values per key (SLF4J 2.0); not shown in the output
+	
+	public void pushByKey(String key, String value) {
+		Map<String, Deque<String>> map = deques.get(); 
+		if (map == null) {
+			map = new HashMap<String, Deque<String>>(); 
+			deques.set(map); 
+		}
+		Deque<String> deque = map.get(key); 
+		if (deque == null) {
+			deque = new ArrayDeque<String>(); 
+			map.put(key, deque); 
+		}
+		deque.push(value); 
+	}
+	
+	public String popByKey(String key) {
+		Deque<String> deque = getDeque(key); 
+		return deque == null ? null : deque.poll(); 
+	}
+	
+	public Deque<String> getCopyOfDequeByKey(String key) {
+		Deque<String> deque = getDeque(key); 
+		return deque == null ? null : new ArrayDeque<String>(deque); 
+	}
+	
+	public void clearDequeByKey(String key) {
+		Deque<String> deque = getDeque(key); 
+		if (deque != null) {
+			deque.clear(); 
+		}
+	}
+	
+	private Deque<String> getDeque(String key) {
+		Map<String, Deque<String>> map = deques.get(); 
+		return map == null ? null : map.get(key); 
+	}
+}
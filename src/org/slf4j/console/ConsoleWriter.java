@@ -0,0 +1,496 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.spi.LocationAwareLogger;
+
+/** Single sequencer through which all log statements reach the {@link ConsoleOutput}. 
+ *  
+ *  Statements are written in the order in which they enter the sequencer and each 
+ *  statement receives a global sequence number, which can be shown in front of each 
+ *  line (<code>sequence=true</code>). This allows to restore the original order 
+ *  if standard output and error stream are captured separately. 
+ *  
+ *  A routing table determines for each level whether statements go to the standard 
+ *  output or to the error stream. By default WARN and ERROR are sent to the error 
+ *  stream; <code>stderr=none</code> merges all statements into the standard output,
+ *  <code>stderr=all</code> merges them into the error stream.  
+ *  
+ *  The sequencer also renders the line. Whether the logger name is replaced by two 
+ *  dots is decided here, at the point where the line is actually written, so that 
+ *  concurrent threads cannot mark a line as belonging to the wrong logger. Loggers are 
+ *  compared by identity, thus different logger names never collide.  
+ *  
+ *  With <code>collapse=true</code> a line that is identical to the previous line of the 
+ *  same logger (same level, same message, no exception) is held back and counted. When 
+ *  a different line arrives, or at the latest after <code>collapseMillis</code>, the run 
+ *  is written as a single line <code>.. (repeated 4211 times)</code>. Messages are 
+ *  compared by hash code first, the characters are only compared if the hash codes match. 
+ *  
+ *  The diagnostic context ({@link ConsoleMDCAdapter}) of the thread that logged a statement is 
+ *  passed along with it. The values of the keys listed in the <code>mdc</code> property are shown 
+ *  in brackets in front of the message (if any of them is set). 
+ *  
+ *  With <code>format=json</code> each statement is written as a JSON object by the 
+ *  {@link JsonLineEncoder} instead; the logger name is always included and lines 
+ *  are not collapsed. 
+ *  
+ *  In synchronous mode logging threads enter the sequencer one at a time (this is 
+ *  the only lock they take, no matter which stream the statement goes to). In 
+ *  asynchronous mode only the writer thread does. */
+final class ConsoleWriter {
+
+	/** Lines of the same logger are grouped */
+	static final int GROUP_BY_LOGGER = 0; 
+	
+	/** Lines of the same logger are only grouped if they were logged by the same thread */
+	static final int GROUP_BY_THREAD = 1; 
+	
+	/** Lines are never grouped */
+	static final int GROUP_NONE = 2; 
+	
+	private final ConsoleOutput output;
+	private FlushPolicy flushPolicy; 
+	
+	/** Routing table, indexed by level / 10: true if statements go to the error stream */
+	private final boolean[] errorStream; 
+	
+	private final boolean showSequence; 
+	private boolean includeTime; 
+	private String padDots; 
+	private final int groupMode; 
+	
+	/** Time after which a run of repeated lines is reported (-1: lines are not collapsed) */
+	private final int collapseMillis; 
+	
+	/** Renders statements as JSON lines, null for the console layout */
+	private final JsonLineEncoder json; 
+	
+	/** Keys of the diagnostic context shown in front of the message (null if none) */
+	private final String[] contextKeys; 
+	
+	private final TimestampCache timestamp = new TimestampCache(); 
+	private StringBuilder line = new StringBuilder(256); 
+	private long sequence; 
+	private boolean flushRequested; 
+	
+	/** Logger and thread of the last line */
+	private ConsoleLogger lastLogger; 
+	private long lastThreadId; 
+	
+	/** Last line written while collapsing lines, and the repetitions of it held back */
+	private ConsoleLogger heldLogger; 
+	private int heldLevel; 
+	private int heldHash; 
+	private StringBuilder heldMessage = new StringBuilder(256); 
+	private ContextMap heldContext; 
+	private long heldMillis; 
+	private long heldThreadId; 
+	private int repeats; 
+	private long runStart; 
+	private final StringBuilder repeatMessage = new StringBuilder(32); 
+	
+	/** Message buffer for deferred messages that have to be compared with the held line */
+	private StringBuilder scratch = new StringBuilder(256); 
+	
+	ConsoleWriter(ConsoleOutput output, FlushPolicy flushPolicy, boolean[] errorStream, boolean showSequence, 
+			boolean includeTime, String padDots, int groupMode, int collapseMillis, boolean json, String[] contextKeys) {
+		this.output = output; 
+		this.flushPolicy = flushPolicy; 
+		this.errorStream = errorStream;
+		this.showSequence = showSequence; 
+		this.includeTime = includeTime; 
+		this.padDots = padDots; 
+		this.groupMode = groupMode; 
+		this.json = json ? new JsonLineEncoder() : null; 
+		this.collapseMillis = json ? -1 : collapseMillis; 
+		this.contextKeys = (contextKeys == null || contextKeys.length == 0) ? null : contextKeys; 
+	}
+	
+	static ConsoleWriter fromConfiguration(ConsoleOutput output, FlushPolicy flushPolicy, ConsoleLoggerConfiguration config, 
+			boolean includeTime, String padDots) {
+		String group = config.getStringProperty(ConsoleLogger.KEY_GROUP, "logger");
+		int groupMode = GROUP_BY_LOGGER; 
+		if ("thread".equalsIgnoreCase(group)) {
+			groupMode = GROUP_BY_THREAD; 
+		} else if ("none".equalsIgnoreCase(group)) {
+			groupMode = GROUP_NONE; 
+		} else if (!"logger".equalsIgnoreCase(group)) {
+			System.err.println("Console logger group mode ("+group+") is unknown. Grouping by logger instead.");
+		}
+		String format = config.getStringProperty(ConsoleLogger.KEY_FORMAT, "text");
+		if (!"text".equalsIgnoreCase(format) && !"json".equalsIgnoreCase(format)) {
+			System.err.println("Console logger format ("+format+") is unknown. Using text instead.");
+		}
+		return new ConsoleWriter(output, flushPolicy, 
+				parseErrorStreamLevels(config.getStringProperty(ConsoleLogger.KEY_STDERR, "warn,error")), 
+				config.getBooleanProperty(ConsoleLogger.KEY_SEQUENCE, false), 
+				includeTime, padDots, groupMode, 
+				config.getBooleanProperty(ConsoleLogger.KEY_COLLAPSE, false) 
+					? Math.max(0, config.getIntProperty(ConsoleLogger.KEY_COLLAPSE_MILLIS, 1000)) : -1, 
+				"json".equalsIgnoreCase(format), 
+				parseContextKeys(config.getStringProperty(ConsoleLogger.KEY_MDC)));
+	}
+	
+	/** Parses a comma separated list of keys (null if there are none) */
+	private static String[] parseContextKeys(String keys) {
+		if (keys == null) {
+			return null; 
+		}
+		List<String> list = new ArrayList<String>(); 
+		for (String key : keys.split(",")) {
+			if (!key.trim().isEmpty()) {
+				list.add(key.trim()); 
+			}
+		}
+		return list.isEmpty() ? null : list.toArray(new String[list.size()]); 
+	}
+	
+	/** Default routing: WARN and ERROR go to the error stream */
+	static boolean[] defaultErrorStreamLevels() {
+		return parseErrorStreamLevels("warn,error"); 
+	}
+	
+	/** Parses a comma separated list of levels (which may be abbreviated to their first letter), 
+	 *  <code>all</code> or <code>none</code>. */
+	private static boolean[] parseErrorStreamLevels(String levels) {
+		boolean[] result = new boolean[LocationAwareLogger.ERROR_INT/10 + 1]; 
+		for (String item : levels.split(",")) {
+			item = item.trim().toLowerCase(); 
+			if (item.isEmpty() || item.equals("none")) {
+				continue; 
+			}
+			if (item.equals("all")) {
+				Arrays.fill(result, true);
+				continue; 
+			}
+			switch (item.charAt(0)) {
+			case 't': result[LocationAwareLogger.TRACE_INT/10] = true; break;
+			case 'd': result[LocationAwareLogger.DEBUG_INT/10] = true; break;
+			case 'i': result[LocationAwareLogger.INFO_INT/10] = true; break;
+			case 'w': result[LocationAwareLogger.WARN_INT/10] = true; break;
+			case 'e': result[LocationAwareLogger.ERROR_INT/10] = true; break;
+			default: 
+				System.err.println("Console logger level ("+item+") in the stderr property is unknown and will be ignored.");
+			}
+		}
+		return result; 
+	}
+	
+	/** Changes the layout after the configuration has been reloaded */
+	synchronized void setLayout(boolean includeTime, String padDots) {
+		this.includeTime = includeTime; 
+		this.padDots = padDots; 
+	}
+	
+	/** Writes a statement and flushes the output if the flush policy asks for it. */
+	synchronized void write(ConsoleLogger logger, int level, long millis, long threadId, CharSequence message, Throwable t) {
+		append(logger, level, millis, threadId, callerContext(), message, t);
+		flushIfRequested();
+	}
+	
+	/** Writes a parameterized message and flushes the output if the flush policy asks for it 
+	 *  (used if the arguments are part of the output, see {@link #keepsArguments()}). 
+	 *  The arguments are captured with {@link MessageFormatterEx#snapshot(Object)} before the sequencer 
+	 *  is locked, as the toString() method of an argument may log itself. */
+	void write(ConsoleLogger logger, int level, long millis, long threadId, String pattern, Object[] args, 
+			int argCount, Throwable t) {
+		Object[] captured = null; 
+		if (args != null) {
+			captured = new Object[argCount]; 
+			for (int i=0;i<argCount;i++) {
+				captured[i] = MessageFormatterEx.snapshot(args[i]); 
+			}
+		}
+		ContextMap context = callerContext(); 
+		synchronized (this) {
+			append(logger, level, millis, threadId, context, pattern, captured, argCount, t);
+			flushIfRequested();
+		}
+	}
+	
+	/** Returns true if statements are written with the diagnostic context of the thread that logged them */
+	boolean usesContext() {
+		return json != null || contextKeys != null; 
+	}
+	
+	/** Context of the calling thread if it is written, otherwise null */
+	private ContextMap callerContext() {
+		return usesContext() ? ConsoleMDCAdapter.context() : null; 
+	}
+	
+	/** Returns true if the arguments of a message are written on their own (JSON lines), thus 
+	 *  messages have to be passed with pattern and arguments instead of being formatted before. */
+	boolean keepsArguments() {
+		return json != null; 
+	}
+	
+	/** Time after which a run of repeated lines is reported (-1: lines are not collapsed) */
+	int collapseMillis() {
+		return collapseMillis; 
+	}
+	
+	/** Writes a statement. The output is not flushed before {@link #flushIfRequested()} is called. 
+	 *  @param millis time at which the statement was logged 
+	 *  @param threadId id of the thread that logged the statement 
+	 *  @param context diagnostic context of that thread (null if empty or not used) */
+	synchronized void append(ConsoleLogger logger, int level, long millis, long threadId, ContextMap context, 
+			CharSequence message, Throwable t) {
+		if (json != null) {
+			writeJson(logger, level, millis, threadId, context, message, null, null, -1, t); 
+			return; 
+		}
+		if (collapseMillis < 0) {
+			render(logger, level, millis, threadId, context, message, t); 
+			return; 
+		}
+		if (message == null) {
+			message = "null"; //as printed without collapsing
+		}
+		if (t == null) {
+			int hash = hash(message);
+			if (logger == heldLogger && level == heldLevel && hash == heldHash && contentEquals(heldMessage, message) 
+					&& (context == heldContext || (context != null && context.equals(heldContext)))) {
+				if (repeats++ == 0) {
+					runStart = millis; 
+				}
+				heldMillis = millis; 
+				heldThreadId = threadId; 
+				if (millis - runStart >= collapseMillis) {
+					writeRepeats(); 
+				}
+				return; 
+			}
+			writeRepeats(); 
+			render(logger, level, millis, threadId, context, message, null); 
+			heldLogger = logger; 
+			heldContext = context; 
+			heldLevel = level; 
+			heldHash = hash; 
+			heldMessage = LogBuffers.reset(heldMessage).append(message); 
+		} else {
+			writeRepeats(); 
+			render(logger, level, millis, threadId, context, message, t); 
+			heldLogger = null; 
+			heldContext = null; 
+		}
+	}
+	
+	private static int hash(CharSequence s) {
+		if (s instanceof String) {
+			return s.hashCode(); 
+		}
+		int h = 0; 
+		for (int i=0, n=s.length();i<n;i++) {
+			h = 31*h + s.charAt(i); 
+		}
+		return h; 
+	}
+	
+	private static boolean contentEquals(CharSequence a, CharSequence b) {
+		int n = a.length(); 
+		if (n != b.length()) {
+			return false; 
+		}
+		for (int i=0;i<n;i++) {
+			if (a.charAt(i) != b.charAt(i)) {
+				return false; 
+			}
+		}
+		return true; 
+	}
+	
+	/** Writes the repetitions of the held line that have not been reported yet */
+	private void writeRepeats() {
+		if (repeats == 0) {
+			return; 
+		}
+		if (repeats == 1) {
+			render(heldLogger, heldLevel, heldMillis, heldThreadId, heldContext, heldMessage, null); 
+		} else {
+			repeatMessage.setLength(0); 
+			repeatMessage.append("(repeated ").append(repeats).append(" times)"); 
+			render(heldLogger, heldLevel, heldMillis, heldThreadId, heldContext, repeatMessage, null); 
+		}
+		repeats = 0; 
+	}
+	
+	/** Writes a parameterized message that has not been formatted yet (used by the asynchronous writer). 
+	 *  The message is formatted straight into the line buffer behind the header, without an intermediate 
+	 *  buffer (unless lines are collapsed, which requires the message on its own). */
+	synchronized void append(ConsoleLogger logger, int level, long millis, long threadId, ContextMap context, 
+			String pattern, Object[] args, int argCount, Throwable t) {
+		if (json != null) {
+			writeJson(logger, level, millis, threadId, context, null, pattern, args, argCount, t); 
+			return; 
+		}
+		if (collapseMillis >= 0) {
+			StringBuilder message = LogBuffers.reset(scratch); 
+			MessageFormatterEx.appendFormatted(message, pattern, args, argCount); 
+			scratch = message; 
+			append(logger, level, millis, threadId, context, message, t); 
+			return; 
+		}
+		StringBuilder buf = header(logger, level, millis, threadId, context); 
+		MessageFormatterEx.appendFormatted(buf, pattern, args, argCount); 
+		writeLine(level, t); 
+	}
+	
+	/** Renders and writes a statement as a JSON line */
+	private void writeJson(ConsoleLogger logger, int level, long millis, long threadId, ContextMap context, CharSequence message, 
+			String pattern, Object[] args, int argCount, Throwable t) {
+		StringBuilder buf = line; 
+		buf.setLength(0); 
+		long seq = sequence++; 
+		json.appendLine(buf, showSequence ? seq : -1, logger, level, millis, threadId, context, message, pattern, args, argCount, t); 
+		writeLine(level, null); 
+	}
+	
+	/** Renders and writes a single line */
+	private void render(ConsoleLogger logger, int level, long millis, long threadId, ContextMap context, 
+			CharSequence message, Throwable t) {
+		header(logger, level, millis, threadId, context).append(message); 
+		writeLine(level, t); 
+	}
+	
+	/** Starts a new line in the line buffer with sequence number, time stamp, logger name, level 
+	 *  and the values of the context keys */
+	private StringBuilder header(ConsoleLogger logger, int level, long millis, long threadId, ContextMap context) {
+		StringBuilder buf = line; 
+		buf.setLength(0);
+		long seq = sequence++;
+		if (showSequence) {
+			int start = buf.length(); 
+			buf.append(seq); 
+			while (buf.length() - start < 6) {
+				buf.insert(start, '0');
+			}
+			buf.append(' ');
+		}
+		if (includeTime) {
+			timestamp.append(buf, millis);
+		}
+		
+		if (logger == lastLogger && groupMode != GROUP_NONE && (groupMode != GROUP_BY_THREAD || threadId == lastThreadId)) {
+			buf.append(padDots);
+		} else {
+			buf.append(logger.nameColumn());
+		}
+		lastLogger = logger; 
+		lastThreadId = threadId; 
+		
+		// Append a readable representation of the log level
+		switch (level) {
+		case LocationAwareLogger.TRACE_INT:
+			buf.append(" t| ");
+			break;
+		case LocationAwareLogger.DEBUG_INT:
+			buf.append(" d| ");
+			break;
+		case LocationAwareLogger.INFO_INT:
+			buf.append(" i| "); 
+			break;
+		case LocationAwareLogger.WARN_INT:
+			buf.append(" W| ");
+			break;
+		case LocationAwareLogger.ERROR_INT:
+			buf.append(" E| ");
+			break;
+		}
+		if (contextKeys != null && context != null) {
+			appendContext(buf, context); 
+		}
+		return buf; 
+	}
+	
+	/** Appends the values of the context keys in brackets (a dash for keys that are not set), 
+	 *  nothing if none of them is set */
+	private void appendContext(StringBuilder buf, ContextMap context) {
+		int start = buf.length(); 
+		boolean found = false; 
+		buf.append('['); 
+		for (int i=0;i<contextKeys.length;i++) {
+			if (i > 0) {
+				buf.append(' '); 
+			}
+			String value = context.get(contextKeys[i]); 
+			if (value == null) {
+				buf.append('-'); 
+			} else {
+				buf.append(value); 
+				found = true; 
+			}
+		}
+		if (found) {
+			buf.append("] "); 
+		} else {
+			buf.setLength(start); 
+		}
+	}
+	
+	/** Passes the line in the line buffer to the output */
+	private void writeLine(int level, Throwable t) {
+		StringBuilder buf = line; 
+		output.write(errorStream[level/10], buf, t);
+		if (flushPolicy.written(level, buf.length())) {
+			flushRequested = true; 
+		}
+		line = LogBuffers.reset(buf);
+	}
+	
+	synchronized void flushIfRequested() {
+		if (flushRequested) {
+			flushRequested = false; 
+			output.flush(); 
+		}
+	}
+	
+	/** Called by the flush timer: reports a run of repeated lines that is due and flushes 
+	 *  the output if the flush interval has passed. */
+	synchronized void flushIfPending() {
+		if (repeats > 0 && System.currentTimeMillis() - runStart >= collapseMillis) {
+			writeRepeats(); 
+			flushIfRequested(); 
+		}
+		if (flushPolicy.timerExpired()) {
+			flushRequested = false; 
+			output.flush();
+		}
+	}
+	
+	/** Flushes the output. All statements written afterwards are flushed immediately. */
+	synchronized void close() {
+		writeRepeats(); 
+		flushPolicy = FlushPolicy.IMMEDIATE;
+		flushRequested = false; 
+		output.close(); 
+	}
+	
+}
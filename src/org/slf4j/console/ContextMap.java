@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Immutable diagnostic context of a thread (see {@link ConsoleMDCAdapter}). 
+ *  
+ *  Changes create a new map, thus a map can be handed to another thread (e.g. the 
+ *  asynchronous writer) without copying. Entries are kept in an array in the order in 
+ *  which they were added; contexts are small, so lookups simply compare the keys. */
+final class ContextMap {
+
+	static final ContextMap EMPTY = new ContextMap(new String[0]); 
+	
+	/** Keys and values, alternating */
+	private final String[] entries; 
+	
+	private ContextMap(String[] entries) {
+		this.entries = entries; 
+	}
+	
+	int size() {
+		return entries.length / 2; 
+	}
+	
+	String key(int i) {
+		return entries[2*i]; 
+	}
+	
+	String value(int i) {
+		return entries[2*i+1]; 
+	}
+	
+	private int indexOf(String key) {
+		String[] e = entries; 
+		for (int i=0;i<e.length;i+=2) {
+			if (key.equals(e[i])) {
+				return i; 
+			}
+		}
+		return -1; 
+	}
+	
+	String get(String key) {
+		int i = indexOf(key); 
+		return i < 0 ? null : entries[i+1]; 
+	}
+	
+	/** Returns a map with the entry added or replaced */
+	ContextMap with(String key, String value) {
+		int i = indexOf(key); 
+		String[] e; 
+		if (i >= 0) {
+			if (value == null ? entries[i+1] == null : value.equals(entries[i+1])) {
+				return this; 
+			}
+			e = entries.clone(); 
+		} else {
+			i = entries.length; 
+			e = new String[i + 2]; 
+			System.arraycopy(entries, 0, e, 0, i);
+			e[i] = key; 
+		}
+		e[i+1] = value; 
+		return new ContextMap(e); 
+	}
+	
+	/** Returns a map without the entry */
+	ContextMap without(String key) {
+		int i = indexOf(key); 
+		if (i < 0) {
+			return this; 
+		}
+		if (entries.length == 2) {
+			return EMPTY; 
+		}
+		String[] e = new String[entries.length - 2]; 
+		System.arraycopy(entries, 0, e, 0, i);
+		System.arraycopy(entries, i + 2, e, i, e.length - i);
+		return new ContextMap(e); 
+	}
+	
+	static ContextMap of(Map<String, String> map) {
+		ContextMap context = EMPTY; 
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			context = context.with(entry.getKey(), entry.getValue()); 
+		}
+		return context; 
+	}
+	
+	Map<String, String> toMap() {
+		Map<String, String> map = new HashMap<String, String>(); 
+		for (int i=0;i<entries.length;i+=2) {
+			map.put(entries[i], entries[i+1]); 
+		}
+		return map; 
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true; 
+		}
+		if (!(o instanceof ContextMap) || ((ContextMap) o).entries.length != entries.length) {
+			return false; 
+		}
+		ContextMap other = (ContextMap) o; 
+		for (int i=0;i<entries.length;i+=2) {
+			String value = other.get(entries[i]); 
+			if (value == null ? entries[i+1] != null || other.indexOf(entries[i]) < 0 : !value.equals(entries[i+1])) {
+				return false; 
+			}
+		}
+		return true; 
+	}
+	
+	@Override
+	public int hashCode() {
+		int h = 0; 
+		for (int i=0;i<entries.length;i+=2) {
+			h += entries[i].hashCode() ^ (entries[i+1] == null ? 0 : entries[i+1].hashCode()); 
+		}
+		return h; 
+	}
+}
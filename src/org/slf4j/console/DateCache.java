@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/** Renders dates as ISO date (<code>yyyy-MM-dd</code>), followed by the time 
+ *  (<code>THH:mm:ss</code>) unless the time is midnight. Dates are shown in the default time zone, 
+ *  milliseconds are ignored (like {@link Date#toString()}).
+ *  
+ *  The date part is rendered once per day: the current day is kept in an immutable object 
+ *  together with the time range in which it applies (a day ends early at a daylight saving 
+ *  time transition). Days are computed with the same calendar as {@link java.text.SimpleDateFormat}. 
+ *  The time is computed from the offset to the start of the day and written digit by digit. Threads only share the immutable day, thus no locks are needed. */
+final class DateCache {
+
+	private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L; 
+	
+	/** Date part and the time range for which it is valid */
+	private static final class Day {
+		final char[] date; 
+		
+		/** Time at which the day started on the wall clock (in the offset valid for this range) */
+		final long base; 
+		final long start; 
+		final long end; 
+		
+		Day(char[] date, long base, long start, long end) {
+			this.date = date; 
+			this.base = base; 
+			this.start = start; 
+			this.end = end; 
+		}
+	}
+	
+	private static volatile Day current = new Day(null, 0, 0, 0); 
+	
+	private DateCache() {
+	}
+	
+	static void append(StringBuilder sbuf, Date date) {
+		long millis = date.getTime(); 
+		Day day = current; 
+		if (millis < day.start || millis >= day.end) {
+			day = dayOf(millis); 
+			current = day; 
+		}
+		sbuf.append(day.date); 
+		int second = (int) ((millis - day.base) / 1000); 
+		if (second != 0) {
+			int hour = second / 3600; 
+			int minute = (second / 60) % 60; 
+			second %= 60; 
+			sbuf.append('T')
+				.append((char) ('0' + hour / 10)).append((char) ('0' + hour % 10)).append(':')
+				.append((char) ('0' + minute / 10)).append((char) ('0' + minute % 10)).append(':')
+				.append((char) ('0' + second / 10)).append((char) ('0' + second % 10)); 
+		}
+	}
+	
+	private static Day dayOf(long millis) {
+		TimeZone zone = TimeZone.getDefault(); 
+		GregorianCalendar calendar = new GregorianCalendar(zone); //same calendar as SimpleDateFormat (incl. Julian dates)
+		calendar.setTimeInMillis(millis); 
+		long base = millis - (calendar.get(Calendar.HOUR_OF_DAY) * 3600000L + calendar.get(Calendar.MINUTE) * 60000L 
+				+ calendar.get(Calendar.SECOND) * 1000L + calendar.get(Calendar.MILLISECOND)); 
+		
+		//the day is only valid as long as the offset of the time zone does not change
+		int offset = zone.getOffset(millis); 
+		long start = base; 
+		if (zone.getOffset(start) != offset) {
+			long lo = start, hi = millis; //offset(lo) differs, offset(hi) matches
+			while (hi - lo > 1) {
+				long mid = lo + (hi - lo) / 2; 
+				if (zone.getOffset(mid) == offset) hi = mid; else lo = mid; 
+			}
+			start = hi; 
+		}
+		long end = base + DAY_MILLIS; 
+		if (zone.getOffset(end - 1) != offset) {
+			long lo = millis, hi = end - 1; //offset(lo) matches, offset(hi) differs 
+			while (hi - lo > 1) {
+				long mid = lo + (hi - lo) / 2; 
+				if (zone.getOffset(mid) == offset) lo = mid; else hi = mid; 
+			}
+			end = hi; 
+		}
+		
+		int year = calendar.get(Calendar.YEAR); 
+		int month = calendar.get(Calendar.MONTH) + 1; 
+		int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH); 
+		char[] date; 
+		if (year > 9999) { 
+			date = (year + String.format("-%02d-%02d", month, dayOfMonth)).toCharArray(); 
+		} else {
+			date = "0000-00-00".toCharArray(); 
+			date[0] = (char) ('0' + year / 1000); 
+			date[1] = (char) ('0' + (year / 100) % 10); 
+			date[2] = (char) ('0' + (year / 10) % 10); 
+			date[3] = (char) ('0' + year % 10); 
+			date[5] = (char) ('0' + month / 10); 
+			date[6] = (char) ('0' + month % 10); 
+			date[8] = (char) ('0' + dayOfMonth / 10); 
+			date[9] = (char) ('0' + dayOfMonth % 10); 
+		}
+		return new Day(date, base, start, end); 
+	}
+}
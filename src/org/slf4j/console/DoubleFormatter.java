@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/** Writes double values with at least one and at most six fraction digits, the same output as 
+ *  a {@link DecimalFormat} with the pattern <code>0.0#####</code> (US locale), but directly 
+ *  into the buffer and without sharing any state between threads. 
+ *  
+ *  Values below 10 million are scaled by 10^6 and rounded to a long (half even, like 
+ *  DecimalFormat). The scaled value is only inexact close to a tie, in which case the exact 
+ *  binary value decides. Larger values, NaN and infinity are passed to a DecimalFormat of the 
+ *  calling thread. */
+final class DoubleFormatter {
+
+	private static final double FAST_LIMIT = 1e7; 
+	private static final double SCALE = 1e6; 
+	
+	/** Distance from a tie within which the scaled value is not trusted */
+	private static final double TIE_MARGIN = 1e-2; 
+	
+	private static final ThreadLocal<DecimalFormat> FORMAT = new ThreadLocal<DecimalFormat>() {
+		@Override
+		protected DecimalFormat initialValue() {
+			DecimalFormat format = (DecimalFormat) NumberFormat.getInstance(Locale.US);
+			format.applyPattern("0.0#####");
+			return format; 
+		}
+	};
+	
+	private DoubleFormatter() {
+	}
+	
+	static void append(StringBuilder sbuf, double value) {
+		double abs = Math.abs(value); 
+		if (!(abs < FAST_LIMIT)) { //also NaN
+			sbuf.append(FORMAT.get().format(value)); 
+			return; 
+		}
+		double scaled = abs * SCALE; 
+		long units = (long) scaled; 
+		double fraction = scaled - units; 
+		if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+			units = new BigDecimal(abs).setScale(6, RoundingMode.HALF_EVEN).unscaledValue().longValue(); 
+		} else if (fraction > 0.5) {
+			units++; 
+		}
+		if (value < 0 || (value == 0 && 1 / value < 0)) {
+			sbuf.append('-'); 
+		}
+		long integer = units / 1000000; 
+		int micros = (int) (units % 1000000); 
+		sbuf.append(integer).append('.'); 
+		if (micros == 0) {
+			sbuf.append('0'); 
+			return; 
+		}
+		int digits = 6; 
+		while (micros % 10 == 0) {
+			micros /= 10; 
+			digits--; 
+		}
+		for (int div = pow10(digits-1); div > 0; div /= 10) {
+			sbuf.append((char) ('0' + (micros / div) % 10)); 
+		}
+	}
+	
+	private static int pow10(int n) {
+		int p = 1; 
+		while (n-- > 0) {
+			p *= 10; 
+		}
+		return p; 
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.spi.LocationAwareLogger;
+
+/** Decides when console output is flushed. 
+ *  
+ *  In immediate mode every statement is flushed as soon as it has been written. 
+ *  In buffered mode output is flushed once a number of characters has accumulated, 
+ *  after a statement with level WARN or ERROR, and by a timer at a fixed interval. 
+ *  Setting the number of characters or the interval to 0 disables that trigger. 
+ *  
+ *  By default (mode <code>auto</code>) immediate mode is used if the JVM is attached to 
+ *  an interactive terminal and buffered mode if the output is redirected to a 
+ *  file or a pipe or written to a log file. */
+final class FlushPolicy {
+
+	static final int DEFAULT_FLUSH_BYTES = 8192;
+	static final int DEFAULT_FLUSH_MILLIS = 1000;
+	
+	static final FlushPolicy IMMEDIATE = new FlushPolicy(true, 0, 0, true); 
+	
+	final boolean immediate; 
+	
+	/** Number of characters after which output is flushed (0 = never) */
+	final int maxChars;
+	
+	/** Interval of the flush timer in milliseconds (0 = no timer) */
+	final int maxMillis;
+	
+	private final boolean flushOnError; 
+	
+	/** Number of characters written since the last flush. Only changed by the {@link ConsoleWriter}, 
+	 *  but read by the flush timer. */
+	private final AtomicInteger pending = new AtomicInteger();
+	
+	private FlushPolicy(boolean immediate, int maxChars, int maxMillis, boolean flushOnError) {
+		this.immediate = immediate; 
+		this.maxChars = Math.max(0, maxChars); 
+		this.maxMillis = Math.max(0, maxMillis);
+		this.flushOnError = flushOnError; 
+	}
+	
+	static FlushPolicy fromConfiguration(ConsoleLoggerConfiguration config) {
+		String mode = config.getStringProperty(ConsoleLogger.KEY_FLUSH, "auto");
+		boolean immediate; 
+		if ("immediate".equalsIgnoreCase(mode)) {
+			immediate = true; 
+		} else if ("buffered".equalsIgnoreCase(mode)) {
+			immediate = false; 
+		} else {
+			if (!"auto".equalsIgnoreCase(mode)) {
+				System.err.println("Console logger flush mode ("+mode+") is unknown. Using auto instead.");
+			}
+			String output = config.getStringProperty(ConsoleLogger.KEY_OUTPUT, "console");
+			immediate = System.console() != null //no console if output is redirected
+					&& !"mapped".equalsIgnoreCase(output) && !"rolling".equalsIgnoreCase(output) 
+					&& !"binary".equalsIgnoreCase(output);
+		}
+		if (immediate) {
+			return IMMEDIATE; 
+		}
+		return new FlushPolicy(false, 
+				config.getIntProperty(ConsoleLogger.KEY_FLUSH_BYTES, DEFAULT_FLUSH_BYTES),
+				config.getIntProperty(ConsoleLogger.KEY_FLUSH_MILLIS, DEFAULT_FLUSH_MILLIS),
+				config.getBooleanProperty(ConsoleLogger.KEY_FLUSH_ON_ERROR, true));
+	}
+	
+	/** Called after a statement has been written.  
+	 *  @return true if the output should be flushed now */
+	boolean written(int level, int length) {
+		if (immediate || (flushOnError && LocationAwareLogger.WARN_INT <= level)) {
+			pending.set(0); 
+			return true; 
+		}
+		if (pending.addAndGet(length) >= maxChars && maxChars > 0) {
+			pending.set(0); 
+			return true; 
+		}
+		return false;
+	}
+	
+	/** Called by the flush timer. 
+	 *  @return true if anything was written since the last flush */
+	boolean timerExpired() {
+		return pending.getAndSet(0) > 0; 
+	}
+	
+}
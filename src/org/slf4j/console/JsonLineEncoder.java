@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.slf4j.spi.LocationAwareLogger;
+
+/** Renders a log statement as a JSON object on a single line (JSON Lines), for example 
+ *  <pre>
+ *  {"time":"2026-10-16T17:57:06.442Z","level":"INFO","logger":"com.myapp.Server","thread":1,
+ *   "message":"request 17 took 1.5 ms","args":[17,"1.5"]}
+ *  </pre>
+ *  (without the line break). The diagnostic context, if not empty, is added as object <code>mdc</code>. 
+ *  The time is given in UTC. Arguments are included if the message 
+ *  has a pattern: integers, booleans and null as JSON values, all other arguments as strings 
+ *  rendered like in the message. An exception is included as its stack trace. 
+ *  
+ *  The line is written straight into the line buffer: message and arguments are formatted 
+ *  as usual and then escaped in place, which doesn't move any characters unless the text 
+ *  actually contains characters that need to be escaped. 
+ *  
+ *  Instances are not thread-safe (used by the {@link ConsoleWriter}). */
+final class JsonLineEncoder {
+	
+	private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L; 
+	
+	/** Day for which {@link #datePrefix} is valid */
+	private long cachedDay = Long.MIN_VALUE; 
+	
+	/** <code>yyyy-MM-ddT</code> of the cached day */
+	private final char[] datePrefix = new char[11]; 
+	
+	/** Appends the statement (without line separator). 
+	 *  @param seq sequence number, -1 if it is not shown 
+	 *  @param message message without pattern, or null if pattern and arguments are given 
+	 *  @param argCount number of arguments, the message is not a pattern if negative */
+	void appendLine(StringBuilder buf, long seq, ConsoleLogger logger, int level, long millis, long threadId, 
+			ContextMap context, CharSequence message, String pattern, Object[] args, int argCount, Throwable t) {
+		buf.append('{'); 
+		if (seq >= 0) {
+			buf.append("\"seq\":").append(seq).append(','); 
+		}
+		buf.append("\"time\":\""); 
+		appendTime(buf, millis); 
+		buf.append("\",\"level\":\"").append(levelName(level)); 
+		buf.append("\",\"logger\":"); 
+		appendString(buf, logger.getName()); 
+		buf.append(",\"thread\":").append(threadId); 
+		if (context != null && context.size() > 0) {
+			buf.append(",\"mdc\":{"); 
+			for (int i=0;i<context.size();i++) {
+				if (i > 0) {
+					buf.append(','); 
+				}
+				appendString(buf, context.key(i)); 
+				buf.append(':'); 
+				if (context.value(i) == null) {
+					buf.append("null"); 
+				} else {
+					appendString(buf, context.value(i)); 
+				}
+			}
+			buf.append('}'); 
+		}
+		buf.append(",\"message\":\""); 
+		int start = buf.length(); 
+		if (message != null) {
+			buf.append(message); 
+		} else {
+			MessageFormatterEx.appendFormatted(buf, pattern, args, Math.max(0, argCount)); 
+		}
+		escape(buf, start); 
+		buf.append('"'); 
+		if (message == null && argCount > 0) {
+			buf.append(",\"args\":["); 
+			for (int i=0;i<argCount;i++) {
+				if (i > 0) {
+					buf.append(','); 
+				}
+				appendValue(buf, args[i]); 
+			}
+			buf.append(']'); 
+		}
+		if (t != null) {
+			StringWriter sw = new StringWriter(); 
+			t.printStackTrace(new PrintWriter(sw));
+			buf.append(",\"exception\":"); 
+			appendString(buf, sw.getBuffer()); 
+		}
+		buf.append('}'); 
+	}
+	
+	private static String levelName(int level) {
+		switch (level) {
+		case LocationAwareLogger.TRACE_INT:
+			return "TRACE"; 
+		case LocationAwareLogger.DEBUG_INT:
+			return "DEBUG"; 
+		case LocationAwareLogger.INFO_INT:
+			return "INFO"; 
+		case LocationAwareLogger.WARN_INT:
+			return "WARN"; 
+		default:
+			return "ERROR"; 
+		}
+	}
+	
+	/** Appends an argument value. Other than integers, booleans and null, arguments are rendered 
+	 *  by their type formatter (within the argument length limit). */
+	private static void appendValue(StringBuilder buf, Object o) {
+		if (o == null) {
+			buf.append("null"); 
+			return; 
+		}
+		Class<?> c = o.getClass(); 
+		if ((c == Integer.class || c == Long.class || c == Short.class || c == Byte.class || c == Boolean.class) 
+				&& TypeFormatterRegistry.isBuiltIn(c)) {
+			StringConversionHelper.format(buf, o); 
+			return; 
+		}
+		buf.append('"'); 
+		int start = buf.length(); 
+		BoundedRenderer.append(buf, o, BoundedRenderer.argumentBudget(), null); 
+		escape(buf, start); 
+		buf.append('"'); 
+	}
+	
+	/** Appends a JSON string (with quotes) */
+	static void appendString(StringBuilder buf, CharSequence s) {
+		buf.append('"'); 
+		int start = buf.length(); 
+		buf.append(s); 
+		escape(buf, start); 
+		buf.append('"'); 
+	}
+	
+	/** Escapes the characters from start to the end of the buffer for a JSON string. 
+	 *  The characters are moved (once, from the end) only if anything has to be escaped. */
+	static void escape(StringBuilder buf, int start) {
+		int end = buf.length(); 
+		int extra = 0; 
+		for (int i=start;i<end;i++) {
+			char c = buf.charAt(i); 
+			if (c == '"' || c == '\\') {
+				extra++; 
+			} else if (c < 0x20) {
+				extra += (c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f') ? 1 : 5; 
+			}
+		}
+		if (extra == 0) {
+			return; 
+		}
+		buf.setLength(end + extra); 
+		int j = end + extra; 
+		for (int i=end-1;i>=start;i--) {
+			char c = buf.charAt(i); 
+			if (c == '"' || c == '\\') {
+				buf.setCharAt(--j, c); 
+				buf.setCharAt(--j, '\\'); 
+			} else if (c < 0x20) {
+				char e = escapeChar(c); 
+				if (e != 0) {
+					buf.setCharAt(--j, e); 
+				} else {
+					buf.setCharAt(--j, Character.forDigit(c & 0xF, 16)); 
+					buf.setCharAt(--j, Character.forDigit(c >> 4, 16)); 
+					buf.setCharAt(--j, '0'); 
+					buf.setCharAt(--j, '0'); 
+					buf.setCharAt(--j, 'u'); 
+				}
+				buf.setCharAt(--j, '\\'); 
+			} else {
+				buf.setCharAt(--j, c); 
+			}
+		}
+	}
+	
+	private static char escapeChar(char c) {
+		switch (c) {
+		case '\n': return 'n'; 
+		case '\r': return 'r'; 
+		case '\t': return 't'; 
+		case '\b': return 'b'; 
+		case '\f': return 'f'; 
+		default: return 0; 
+		}
+	}
+	
+	/** Appends the time as <code>yyyy-MM-ddTHH:mm:ss.SSSZ</code> (UTC) */
+	private void appendTime(StringBuilder buf, long millis) {
+		long day = Math.floorDiv(millis, MILLIS_PER_DAY); 
+		if (day != cachedDay) {
+			cacheDay(day); 
+		}
+		buf.append(datePrefix); 
+		int ms = (int) (millis - day * MILLIS_PER_DAY); 
+		append2(buf, ms / 3600000); 
+		buf.append(':'); 
+		append2(buf, ms / 60000 % 60); 
+		buf.append(':'); 
+		append2(buf, ms / 1000 % 60); 
+		buf.append('.'); 
+		int fraction = ms % 1000; 
+		buf.append((char) ('0' + fraction / 100)).append((char) ('0' + fraction / 10 % 10)).append((char) ('0' + fraction % 10)); 
+		buf.append('Z'); 
+	}
+	
+	private static void append2(StringBuilder buf, int n) {
+		buf.append((char) ('0' + n / 10)).append((char) ('0' + n % 10)); 
+	}
+	
+	/** Computes the date of a day since 1970-01-01 (proleptic Gregorian calendar, years 0 to 9999) */
+	private void cacheDay(long day) {
+		long z = day + 719468; //days since 0000-03-01
+		long era = Math.floorDiv(z, 146097); 
+		int dayOfEra = (int) (z - era * 146097); 
+		int yearOfEra = (dayOfEra - dayOfEra/1460 + dayOfEra/36524 - dayOfEra/146096) / 365; 
+		int dayOfYear = dayOfEra - (365*yearOfEra + yearOfEra/4 - yearOfEra/100); 
+		int mp = (5*dayOfYear + 2) / 153; 
+		int dayOfMonth = dayOfYear - (153*mp + 2)/5 + 1; 
+		int month = mp < 10 ? mp + 3 : mp - 9; 
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0); 
+		int y = (int) Math.max(0, Math.min(9999, year)); 
+		char[] d = datePrefix; 
+		d[0] = (char) ('0' + y / 1000); 
+		d[1] = (char) ('0' + y / 100 % 10); 
+		d[2] = (char) ('0' + y / 10 % 10); 
+		d[3] = (char) ('0' + y % 10); 
+		d[4] = '-'; 
+		d[5] = (char) ('0' + month / 10); 
+		d[6] = (char) ('0' + month % 10); 
+		d[7] = '-'; 
+		d[8] = (char) ('0' + dayOfMonth / 10); 
+		d[9] = (char) ('0' + dayOfMonth % 10); 
+		d[10] = 'T'; 
+		cachedDay = day; 
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.Map;
+
+/** Immutable index of the logger levels defined in the configuration. 
+ * 
+ *  The level definitions are stored in a trie with one node per segment of the logger name 
+ *  (e.g. <code>com</code>, <code>myapp</code>, <code>Maps</code>). A lookup walks down the 
+ *  trie once and returns the level of the deepest node on the way that has a level, i.e. the 
+ *  level defined for the logger itself or for its nearest enclosing package. The segments of 
+ *  the logger name are not extracted as strings, lookups therefore don't allocate memory. 
+ *  
+ *  A new index is built whenever the configuration is (re-)loaded. */
+final class LevelIndex {
+
+	private static final class Node {
+		/** Level defined for the name ending at this node (or null) */
+		String level; 
+		
+		/** Open addressing hash table of child segments */
+		String[] segments; 
+		Node[] children; 
+		int size; 
+		
+		Node child(String name, int start, int end) {
+			if (segments == null) {
+				return null; 
+			}
+			int mask = segments.length-1;
+			int length = end-start; 
+			for (int i = hash(name, start, end) & mask; segments[i] != null; i = (i+1) & mask) {
+				String segment = segments[i]; 
+				if (segment.length() == length && name.regionMatches(start, segment, 0, length)) {
+					return children[i]; 
+				}
+			}
+			return null; 
+		}
+		
+		Node addChild(String segment) {
+			Node child = child(segment, 0, segment.length()); 
+			if (child != null) {
+				return child; 
+			}
+			if (segments == null) {
+				segments = new String[4]; 
+				children = new Node[4]; 
+			} else if ((size+1)*2 > segments.length) {
+				String[] oldSegments = segments; 
+				Node[] oldChildren = children; 
+				segments = new String[oldSegments.length*2]; 
+				children = new Node[oldSegments.length*2]; 
+				for (int i=0;i<oldSegments.length;i++) {
+					if (oldSegments[i] != null) {
+						insert(oldSegments[i], oldChildren[i]); 
+					}
+				}
+			}
+			child = new Node(); 
+			insert(segment, child); 
+			size++;
+			return child; 
+		}
+		
+		private void insert(String segment, Node child) {
+			int mask = segments.length-1;
+			int i = hash(segment, 0, segment.length()) & mask; 
+			while (segments[i] != null) {
+				i = (i+1) & mask; 
+			}
+			segments[i] = segment; 
+			children[i] = child; 
+		}
+	}
+	
+	/** Same value as String.hashCode() of the segment, spread over the lower bits */
+	private static int hash(String s, int start, int end) {
+		int h = 0; 
+		for (int i=start;i<end;i++) {
+			h = 31*h + s.charAt(i); 
+		}
+		return h ^ (h >>> 16); 
+	}
+	
+	private final Node root = new Node(); 
+	
+	/** Key prefix of the definitions */
+	private final String prefix; 
+	
+	/** Builds the index from properties of the form <code>org.slf4j.console.&lt;name&gt;=&lt;level&gt;</code>. 
+	 *  Entries of <code>overrides</code> take precedence over those of <code>definitions</code>.  */
+	LevelIndex(Map<?,?> definitions, Map<?,?> overrides) {
+		this(ConsoleLogger.LOG_KEY_PREFIX, definitions, overrides); 
+	}
+	
+	/** Builds the index from properties of the form <code>&lt;prefix&gt;&lt;name&gt;=&lt;value&gt;</code> 
+	 *  (used for other settings that can be defined per logger or package). */
+	LevelIndex(String prefix, Map<?,?> definitions, Map<?,?> overrides) {
+		this.prefix = prefix; 
+		add(definitions); 
+		add(overrides); 
+	}
+	
+	private void add(Map<?,?> properties) {
+		for (Map.Entry<?,?> it : properties.entrySet()) {
+			if (!(it.getKey() instanceof String) || !(it.getValue() instanceof String)) {
+				continue;
+			}
+			String key = (String) it.getKey(); 
+			if (!key.startsWith(prefix)) {
+				continue; 
+			}
+			Node node = root; 
+			int start = prefix.length(); 
+			while (true) {
+				int end = key.indexOf('.', start); 
+				if (end < 0) {
+					node = node.addChild(key.substring(start));
+					break;
+				}
+				node = node.addChild(key.substring(start, end)); 
+				start = end+1; 
+			}
+			node.level = (String) it.getValue(); 
+		}
+	}
+	
+	/** Returns the level defined for the logger or its nearest enclosing package (null if there is none) */
+	String getLevel(String loggerName) {
+		String level = null; 
+		Node node = root; 
+		int start = 0; 
+		int length = loggerName.length(); 
+		while (true) {
+			int end = loggerName.indexOf('.', start); 
+			if (end < 0) {
+				end = length; 
+			}
+			node = node.child(loggerName, start, end); 
+			if (node == null) {
+				return level; 
+			}
+			if (node.level != null) {
+				level = node.level; 
+			}
+			if (end == length) {
+				return level; 
+			}
+			start = end+1; 
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/** Encodes characters into byte buffers provided by an output. ASCII characters are copied 
+ *  without going through a {@link CharsetEncoder} (if the charset is ASCII compatible), other 
+ *  characters are encoded in runs. Characters that can't be encoded are replaced. 
+ *  
+ *  Instances are not thread-safe. */
+final class LineEncoder {
+
+	/** Provides the buffers the characters are encoded into */
+	interface Sink {
+		/** Returns a buffer with free space (the current buffer is full) */
+		ByteBuffer next(); 
+	}
+	
+	private final CharsetEncoder encoder;
+	
+	/** Characters below this value are written as a single byte with the same value */
+	private final char asciiLimit;
+	
+	LineEncoder(Charset charset) {
+		encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE); 
+		byte[] ascii = "az09:.".getBytes(charset); 
+		asciiLimit = (ascii.length == 6 && ascii[0] == 'a' && ascii[5] == '.') ? (char) 0x80 : (char) 0; 
+	}
+	
+	/** Encoding used for the standard output */
+	static Charset consoleCharset() {
+		String encoding = System.getProperty("sun.stdout.encoding");
+		try {
+			return encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+		} catch (RuntimeException ex) { //illegal or unsupported charset name
+			return Charset.defaultCharset();
+		}
+	}
+	
+	/** Encodes the characters into buf (and further buffers of the sink if necessary). 
+	 *  @return the buffer that received the last bytes */
+	ByteBuffer encode(ByteBuffer buf, CharSequence cs, Sink sink) {
+		int len = cs.length(); 
+		int i = 0; 
+		while (i < len) {
+			if (!buf.hasRemaining()) {
+				buf = sink.next();
+			}
+			int end = Math.min(len, i + buf.remaining());
+			char c;
+			while (i < end && (c = cs.charAt(i)) < asciiLimit) {
+				buf.put((byte) c);
+				i++;
+			}
+			if (i < end) {
+				int runEnd = i + 1; 
+				while (runEnd < len && cs.charAt(runEnd) >= asciiLimit) {
+					runEnd++;
+				}
+				buf = encodeSlow(buf, cs, i, runEnd, sink);
+				i = runEnd; 
+			}
+		}
+		return buf; 
+	}
+	
+	private ByteBuffer encodeSlow(ByteBuffer buf, CharSequence cs, int start, int end, Sink sink) {
+		CharBuffer in = CharBuffer.wrap(cs, start, end);
+		encoder.reset();
+		while (encoder.encode(in, buf, true).isOverflow()) {
+			buf = sink.next();
+		}
+		while (encoder.flush(buf).isOverflow()) {
+			buf = sink.next();
+		}
+		return buf; 
+	}
+}
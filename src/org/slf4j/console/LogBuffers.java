@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+/** Per-thread buffers which are reused for formatting log messages, so that enabled 
+ *  log statements don't have to allocate new StringBuilders and argument arrays. 
+ *  
+ *  The buffers grow as needed. A buffer that has grown beyond {@link #MAX_RETAINED_CAPACITY}
+ *  for an unusually long statement is replaced after use, so that a single huge statement 
+ *  does not occupy memory for the lifetime of the thread. */
+final class LogBuffers {
+
+	private static final int INITIAL_CAPACITY = 256; 
+	static final int MAX_RETAINED_CAPACITY = 16384; 
+	
+	private static final ThreadLocal<LogBuffers> BUFFERS = new ThreadLocal<LogBuffers>() {
+		@Override
+		protected LogBuffers initialValue() {
+			return new LogBuffers();
+		}
+	};
+	
+	/** Receives the formatted message */
+	StringBuilder message = new StringBuilder(INITIAL_CAPACITY);
+	
+	/** Holds the arguments of the one and two argument logging methods */
+	final Object[] args = new Object[2];
+	
+	private boolean inUse; 
+	
+	/** Returns the buffers of the current thread. If they are already in use further up 
+	 *  the call stack (i.e. a toString() method of an argument is logging itself) a new 
+	 *  set of buffers is returned. Call {@link #release()} when done. */
+	static LogBuffers acquire() {
+		LogBuffers buffers = BUFFERS.get();
+		if (buffers.inUse) {
+			return new LogBuffers(); 
+		}
+		buffers.inUse = true; 
+		return buffers; 
+	}
+	
+	void release() {
+		message = reset(message); 
+		args[0] = null; 
+		args[1] = null;
+		inUse = false; 
+	}
+	
+	static StringBuilder reset(StringBuilder sb) {
+		if (sb.capacity() > MAX_RETAINED_CAPACITY) {
+			return new StringBuilder(INITIAL_CAPACITY);
+		}
+		sb.setLength(0); 
+		return sb;
+	}
+	
+}
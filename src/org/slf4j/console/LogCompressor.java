@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/** Compresses rolled-over log files and deletes old ones on a low-priority background thread. 
+ *  
+ *  Rolled-over files are named <code>&lt;name&gt;.yyyyMMdd-HHmmss</code> (possibly followed 
+ *  by <code>-&lt;n&gt;</code>) and become <code>&lt;name&gt;.yyyyMMdd-HHmmss.gz</code>. Files which 
+ *  have not been compressed when the JVM exits are compressed the next time the log file is opened. */
+final class LogCompressor {
+	
+	private static final ExecutorService executor = new ThreadPoolExecutor(0, 1, 10, TimeUnit.SECONDS, 
+			new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "ConsoleLogger-compress"); 
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+	
+	private LogCompressor() {
+	}
+	
+	/** Compresses all rolled-over files of the log file and deletes the oldest ones if there 
+	 *  are more than maxFiles (0 = no limit). Returns immediately. */
+	static void tidy(final File file, final int maxFiles) {
+		executor.execute(new Runnable() {
+			public void run() {
+				tidyNow(file, maxFiles);
+			}
+		});
+	}
+	
+	static Pattern rolledPattern(String name) {
+		return Pattern.compile(Pattern.quote(name)+"\\.\\d{8}-\\d{6}(-\\d+)?(\\.gz)?"); 
+	}
+	
+	private static void tidyNow(File file, int maxFiles) {
+		File dir = file.getAbsoluteFile().getParentFile(); 
+		File[] files = dir.listFiles(); 
+		if (files == null) {
+			return; 
+		}
+		Pattern pattern = rolledPattern(file.getName()); 
+		List<File> rolled = new ArrayList<File>(); 
+		for (File f : files) {
+			String name = f.getName(); 
+			if (name.endsWith(".gz.tmp") && pattern.matcher(name.substring(0, name.length()-7)).matches()) {
+				f.delete(); //left over from an interrupted compression
+			} else if (pattern.matcher(name).matches()) {
+				if (!name.endsWith(".gz")) {
+					f = compress(f);
+				}
+				rolled.add(f);
+			}
+		}
+		if (maxFiles > 0 && rolled.size() > maxFiles) {
+			File[] sorted = rolled.toArray(new File[rolled.size()]);
+			Arrays.sort(sorted, new Comparator<File>() { //newest first
+				public int compare(File f1, File f2) {
+					return Long.compare(f2.lastModified(), f1.lastModified());
+				}
+			});
+			for (int i=maxFiles;i<sorted.length;i++) {
+				if (!sorted[i].delete()) {
+					System.err.println("Console logger can't delete the old log file "+sorted[i]+".");
+				}
+			}
+		}
+	}
+	
+	/** Compresses the file to <code>&lt;file&gt;.gz</code> and deletes it. 
+	 *  @return the compressed file, or the original file if compression failed */
+	private static File compress(File file) {
+		File gz = new File(file.getPath()+".gz"); 
+		File tmp = new File(gz.getPath()+".tmp");
+		long lastModified = file.lastModified(); 
+		try {
+			InputStream in = new FileInputStream(file); 
+			try {
+				OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp), 65536);
+				try {
+					byte[] buf = new byte[65536];
+					int n; 
+					while ((n = in.read(buf)) > 0) {
+						out.write(buf, 0, n);
+					}
+				} finally {
+					out.close(); 
+				}
+			} finally {
+				in.close(); 
+			}
+			if (!tmp.renameTo(gz)) {
+				throw new IOException("can't rename "+tmp);
+			}
+		} catch (IOException ex) {
+			System.err.println("Console logger can't compress the log file "+file+" ("+ex+").");
+			tmp.delete(); 
+			return file; 
+		}
+		gz.setLastModified(lastModified); //keeps the order for deleting old files
+		file.delete(); 
+		return gz; 
+	}
+}
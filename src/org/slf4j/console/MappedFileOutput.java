@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/** Writes log statements to a file through a memory-mapped region. 
+ *  
+ *  Lines are appended to the file. The region is mapped in large chunks beyond the end of the 
+ *  file; when a chunk is full, the next one is mapped. Writing a line is therefore a copy into 
+ *  memory, the operating system writes the pages to disk. Since the file grows a chunk at 
+ *  a time, it is truncated to the length actually written on {@link #close()} (on JVM shutdown). 
+ *  If the JVM is killed, the file keeps trailing zero bytes; they are removed when the file is 
+ *  opened again, so that new lines directly follow the old ones. On Windows a file can't be 
+ *  truncated while it is mapped (and a mapping can't be released explicitly), so the file keeps 
+ *  its trailing zero bytes until it is opened again as well. Lines written after closing 
+ *  (or if a chunk can't be mapped) are appended with ordinary writes. 
+ *  
+ *  Lines of the standard output and the error stream go to the same file. */
+class MappedFileOutput extends ConsoleOutput implements LineEncoder.Sink {
+
+	static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+	
+	private final File file; 
+	private final FileChannel channel; 
+	private final int chunkSize; 
+	private final LineEncoder encoder = new LineEncoder(Charset.defaultCharset());
+	private final String lineSeparator = System.lineSeparator();
+	
+	/** The mapped chunk or, if no longer mapped, a buffer that is written to the channel */
+	private ByteBuffer buf; 
+	
+	private boolean mapped; 
+	
+	private boolean failed; 
+	
+	/** File offset of the start of the mapped chunk */
+	private long chunkStart; 
+	
+	/** Opens the file for appending and maps the first chunk. */
+	MappedFileOutput(File file, int chunkSize) throws IOException {
+		this.file = file; 
+		this.chunkSize = chunkSize; 
+		channel = new RandomAccessFile(file, "rw").getChannel(); 
+		try {
+			long length = dataLength(channel); 
+			if (length < channel.size()) {
+				channel.truncate(length); 
+			}
+			map(length);
+		} catch (IOException ex) {
+			channel.close();
+			throw ex; 
+		}
+	}
+	
+	/** Returns the length of the file without the zero bytes at its end, which are left behind if the 
+	 *  file was mapped when the JVM was killed (or if it couldn't be truncated) */
+	private static long dataLength(FileChannel channel) throws IOException {
+		ByteBuffer block = ByteBuffer.allocate(65536); 
+		long end = channel.size(); 
+		while (end > 0) {
+			long start = Math.max(0, end - block.capacity()); 
+			block.clear(); 
+			block.limit((int) (end - start)); 
+			while (block.hasRemaining() && channel.read(block, start + block.position()) >= 0) {
+				//read the whole block
+			}
+			for (int i = block.position() - 1; i >= 0; i--) {
+				if (block.get(i) != 0) {
+					return start + i + 1; 
+				}
+			}
+			end = start; 
+		}
+		return 0; 
+	}
+	
+	private void map(long position) throws IOException {
+		buf = channel.map(FileChannel.MapMode.READ_WRITE, position, chunkSize);
+		chunkStart = position; 
+		mapped = true; 
+	}
+	
+	/** Maps the next chunk when the current one is full (or writes out the buffer if not mapped). */
+	@Override
+	public ByteBuffer next() {
+		if (!mapped) {
+			writeOut(); 
+			return buf; 
+		}
+		try {
+			map(chunkStart + buf.position()); //a character may not have fit into the rest of the chunk
+			return buf; 
+		} catch (IOException ex) {
+			throw new MappingFailedException(ex);
+		}
+	}
+	
+	private void writeOut() {
+		buf.flip(); 
+		try {
+			while (!failed && buf.hasRemaining()) {
+				channel.write(buf);
+			}
+		} catch (IOException ex) {
+			failed = true; //like PrintStream we don't report errors
+		}
+		buf.clear(); 
+	}
+	
+	@Override
+	void write(boolean error, CharSequence line, Throwable t) {
+		if (failed) {
+			return; 
+		}
+		long lineStart = chunkStart + buf.position(); 
+		try {
+			encode(line);
+			encode(lineSeparator);
+			if (t != null) {
+				StringWriter sw = new StringWriter(); 
+				t.printStackTrace(new PrintWriter(sw));
+				encode(sw.getBuffer());
+			}
+		} catch (MappingFailedException ex) {
+			System.err.println("Console logger can't extend the log file "+file+" ("+ex.getCause()+"). "
+					+ "Writing without memory mapping instead.");
+			unmap(lineStart); 
+			write(error, line, t); 
+			return; 
+		}
+		if (!mapped) {
+			writeOut(); 
+		}
+	}
+	
+	private void encode(CharSequence cs) {
+		buf = encoder.encode(buf, cs, this);
+	}
+	
+	/** Does nothing: written lines are in the page cache and reach the file without further calls, 
+	 *  lines written without mapping are written out immediately. */
+	@Override
+	void flush() {
+	}
+	
+	/** Truncates the file to the length written. Further lines are appended without mapping. 
+	 *  The file stays open, since lines may be logged until the JVM exits. */
+	@Override
+	void close() {
+		if (mapped) {
+			unmap(chunkStart + buf.position());
+		}
+	}
+	
+	/** Truncates the file to the end of the written data and continues with ordinary writes. */
+	private void unmap(long length) {
+		mapped = false; 
+		buf = ByteBuffer.allocate(8192); 
+		try {
+			channel.truncate(length);
+		} catch (IOException ex) {
+			//fails on Windows as the file is still mapped: further lines overwrite the zero bytes, 
+			//those that remain are removed when the file is opened again
+		}
+		try {
+			channel.position(length); 
+		} catch (IOException ex) {
+			System.err.println("Console logger can't write to the log file "+file+" ("+ex+"). "
+					+ "Further log statements are discarded.");
+			failed = true; 
+		}
+	}
+	
+	/** Signals that the next chunk couldn't be mapped (thrown through the {@link LineEncoder}) */
+	private static final class MappingFailedException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		MappingFailedException(IOException cause) {
+			super(cause);
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Marker;
+import org.slf4j.spi.LocationAwareLogger;
+
+/** Immutable set of the marker rules defined in the configuration. 
+ * 
+ *  A rule <code>marker.&lt;name&gt;=&lt;level&gt;</code> determines from which level on statements carrying 
+ *  the marker are written, regardless of the level of the logger: <code>marker.SECURITY=trace</code> writes 
+ *  all SECURITY statements even if the logger is off, <code>marker.PERF=off</code> suppresses all PERF 
+ *  statements. A statement is written if one of its markers (or the markers they refer to) enables the level. 
+ *  Markers without a rule leave the decision to the level of the logger. 
+ *  
+ *  Marker names are interned into small integer ids which don't change while the JVM runs. For each level 
+ *  the filter keeps a bit set of the markers that enable it, the check before a statement is formatted 
+ *  is therefore a hash lookup of the marker name and a bit test. 
+ *  
+ *  A new filter is built whenever the configuration is (re-)loaded. */
+final class MarkerFilter {
+
+	/** Result of {@link #decide(int, Marker)}: no rule applies to the markers of the statement */
+	static final int UNDECIDED = 0; 
+	
+	/** Result of {@link #decide(int, Marker)}: the statement is written */
+	static final int ENABLED = 1; 
+	
+	/** Result of {@link #decide(int, Marker)}: the statement is dropped */
+	static final int DISABLED = 2; 
+	
+	/** Filter without rules */
+	static final MarkerFilter NONE = new MarkerFilter(new long[0], new long[5][0]); 
+	
+	/** Ids of the marker names that appeared in a rule. Ids are never reused. */
+	private static final Map<String, Integer> IDS = new ConcurrentHashMap<String, Integer>(); 
+	
+	/** Bit n is set if there is a rule for the marker with id n */
+	private final long[] ruled; 
+	
+	/** Bit n of <code>enabled[level/10]</code> is set if the rule of the marker with id n enables the level */
+	private final long[][] enabled; 
+	
+	private MarkerFilter(long[] ruled, long[][] enabled) {
+		this.ruled = ruled; 
+		this.enabled = enabled; 
+	}
+	
+	/** Builds the filter from properties of the form <code>&lt;prefix&gt;&lt;name&gt;=&lt;level&gt;</code>. 
+	 *  Entries of <code>overrides</code> take precedence over those of <code>definitions</code>. */
+	static MarkerFilter fromProperties(String prefix, Map<?,?> definitions, Map<?,?> overrides) {
+		Map<String, Integer> rules = new HashMap<String, Integer>(); 
+		add(rules, prefix, definitions); 
+		add(rules, prefix, overrides); 
+		if (rules.isEmpty()) {
+			return NONE; 
+		}
+		int maxId = 0; 
+		for (String name : rules.keySet()) {
+			maxId = Math.max(maxId, intern(name)); 
+		}
+		int words = (maxId >>> 6) + 1; 
+		long[] ruled = new long[words]; 
+		long[][] enabled = new long[5][words]; 
+		for (Map.Entry<String, Integer> it : rules.entrySet()) {
+			int id = IDS.get(it.getKey()); 
+			ruled[id >>> 6] |= 1L << id; 
+			for (int level=it.getValue();level<=LocationAwareLogger.ERROR_INT;level+=10) {
+				enabled[level/10][id >>> 6] |= 1L << id; 
+			}
+		}
+		return new MarkerFilter(ruled, enabled); 
+	}
+	
+	private static void add(Map<String, Integer> rules, String prefix, Map<?,?> properties) {
+		for (Map.Entry<?,?> it : properties.entrySet()) {
+			if (!(it.getKey() instanceof String) || !(it.getValue() instanceof String)) {
+				continue;
+			}
+			String key = (String) it.getKey(); 
+			if (!key.startsWith(prefix) || key.length() == prefix.length()) {
+				continue; 
+			}
+			String level = ((String) it.getValue()).trim(); 
+			int levelInt = ConsoleLogger.stringToLevel(level); 
+			if (levelInt == LocationAwareLogger.INFO_INT && !"info".equalsIgnoreCase(level)) {
+				System.err.println("Console logger rule for marker "+key.substring(prefix.length())+" ("+level+") is not a valid level. Ignoring the rule.");
+				continue; 
+			}
+			rules.put(key.substring(prefix.length()), levelInt); 
+		}
+	}
+	
+	/** Returns the id of the marker name, assigning the next free id if the name has none yet */
+	private static synchronized int intern(String name) {
+		Integer id = IDS.get(name); 
+		if (id == null) {
+			id = IDS.size(); 
+			IDS.put(name, id); 
+		}
+		return id; 
+	}
+	
+	/** Returns true if there are no rules */
+	boolean isEmpty() {
+		return ruled.length == 0; 
+	}
+	
+	/** Returns {@link #ENABLED} if a rule for one of the markers enables the level, {@link #DISABLED} if 
+	 *  there are rules for the markers but none of them enables the level, otherwise {@link #UNDECIDED}. 
+	 *  
+	 * @param level One of the LOG_LEVEL_XXX constants (except OFF)
+	 * @param marker The marker of the statement (may be null) */
+	int decide(int level, Marker marker) {
+		if (marker == null || ruled.length == 0) {
+			return UNDECIDED; 
+		}
+		return match(enabled[level/10], marker); 
+	}
+	
+	private int match(long[] enabledBits, Marker marker) {
+		int result = UNDECIDED; 
+		Integer id = IDS.get(marker.getName()); 
+		if (id != null) {
+			int word = id >>> 6; 
+			long bit = 1L << id; 
+			if (word < ruled.length && (ruled[word] & bit) != 0) {
+				if ((enabledBits[word] & bit) != 0) {
+					return ENABLED; 
+				}
+				result = DISABLED; 
+			}
+		}
+		if (marker.hasReferences()) {
+			Iterator<Marker> references = marker.iterator(); 
+			while (references.hasNext()) {
+				int r = match(enabledBits, references.next()); 
+				if (r == ENABLED) {
+					return ENABLED; 
+				}
+				if (r == DISABLED) {
+					result = DISABLED; 
+				}
+			}
+		}
+		return result; 
+	}
+}
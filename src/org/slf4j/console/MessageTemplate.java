@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+/** A message pattern that has been parsed into literal segments and argument slots. 
+ * 
+ *  Parsing follows {@link MessageFormatterEx}: every <code>{}</code> is an anchor for an argument, 
+ *  <code>\{}</code> is written as <code>{}</code> and does not take an argument, <code>\\{}</code> 
+ *  is written as a backslash followed by the argument. Anchors are only substituted as long as 
+ *  arguments are left; the rest of the pattern is copied as it is. Arguments are rendered within 
+ *  the budgets of {@link BoundedRenderer}.  
+ *  
+ *  Templates are cached by the identity of the pattern (almost all patterns are string literals) 
+ *  in a direct mapped cache of fixed size. A pattern that maps to an occupied entry replaces it. 
+ *  Templates are immutable and may be used by several threads at the same time. */
+final class MessageTemplate {
+
+	private static final int CACHE_SIZE = 1024; //power of two 
+	
+	/** Patterns longer than this are not cached (they are rarely literals) */
+	private static final int MAX_CACHED_LENGTH = 2048; 
+	
+	private static final byte NORMAL = 0; 
+	private static final byte ESCAPED = 1; 
+	private static final byte DOUBLE_ESCAPED = 2; 
+	
+	private static final MessageTemplate[] CACHE = new MessageTemplate[CACHE_SIZE]; 
+	
+	private final String pattern; 
+	
+	/** Position of each anchor in the pattern and its kind */
+	private final int[] anchors; 
+	private final byte[] kinds; 
+	
+	private MessageTemplate(String pattern, int[] anchors, byte[] kinds) {
+		this.pattern = pattern; 
+		this.anchors = anchors; 
+		this.kinds = kinds; 
+	}
+	
+	/** Returns the (cached) template of a pattern */
+	static MessageTemplate forPattern(String pattern) {
+		if (pattern.length() > MAX_CACHED_LENGTH) {
+			return compile(pattern); 
+		}
+		int index = System.identityHashCode(pattern) & (CACHE_SIZE-1); 
+		MessageTemplate template = CACHE[index]; //racy but safe: all fields are final 
+		if (template == null || template.pattern != pattern) {
+			template = compile(pattern); 
+			CACHE[index] = template; 
+		}
+		return template; 
+	}
+	
+	static MessageTemplate compile(String pattern) {
+		int count = 0; 
+		for (int j = pattern.indexOf(MessageFormatterEx.DELIM_STR); j >= 0; j = pattern.indexOf(MessageFormatterEx.DELIM_STR, j+2)) {
+			count++; 
+		}
+		int[] anchors = new int[count]; 
+		byte[] kinds = new byte[count]; 
+		int k = 0; 
+		for (int j = pattern.indexOf(MessageFormatterEx.DELIM_STR); j >= 0; j = pattern.indexOf(MessageFormatterEx.DELIM_STR, j+2)) {
+			anchors[k] = j; 
+			if (!MessageFormatterEx.isEscapedDelimeter(pattern, j)) {
+				kinds[k] = NORMAL; 
+			} else if (MessageFormatterEx.isDoubleEscaped(pattern, j)) {
+				kinds[k] = DOUBLE_ESCAPED; 
+			} else {
+				kinds[k] = ESCAPED; 
+			}
+			k++; 
+		}
+		return new MessageTemplate(pattern, anchors, kinds); 
+	}
+	
+	/** Appends the message with the first <code>argCount</code> arguments substituted */
+	void appendTo(StringBuilder sbuf, Object[] args, int argCount) {
+		int lineStart = sbuf.length(); 
+		int i = 0; 
+		int used = 0; 
+		for (int k=0;k<anchors.length && used < argCount;k++) {
+			int j = anchors[k]; 
+			switch (kinds[k]) {
+			case NORMAL: 
+				sbuf.append(pattern, i, j); 
+				BoundedRenderer.appendArgument(sbuf, args[used++], lineStart); 
+				i = j+2; 
+				break; 
+			case DOUBLE_ESCAPED: 
+				sbuf.append(pattern, i, j-1); //consumes one of the backslashes 
+				BoundedRenderer.appendArgument(sbuf, args[used++], lineStart); 
+				i = j+2; 
+				break; 
+			default: //ESCAPED: written as {} without taking an argument
+				sbuf.append(pattern, i, j-1); 
+				sbuf.append(MessageFormatterEx.DELIM_START); 
+				i = j+1; 
+			}
+		}
+		sbuf.append(pattern, i, pattern.length()); 
+	}
+}
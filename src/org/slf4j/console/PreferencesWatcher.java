@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.NodeChangeEvent;
+import java.util.prefs.NodeChangeListener;
+import java.util.prefs.PreferenceChangeEvent;
+import java.util.prefs.PreferenceChangeListener;
+import java.util.prefs.Preferences;
+
+/** Watches the logger configuration stored in the Java Preferences and makes a running 
+ *  JVM pick up changes (e.g. saved with {@link ConfigFrame}) without a restart. 
+ *  
+ *  Changes made within this JVM are reported by preference change listeners. 
+ *  {@link ConfigFrame} usually runs in a JVM of its own; its changes are only seen if the 
+ *  preferences are also synchronized with the backing store at a fixed interval, which is 
+ *  off by default as it locks and reads the backing store each time. In both cases the 
+ *  active configuration (selected group, its logger definitions, time stamp and column 
+ *  width) is compared with the last known state and the configuration is only reloaded 
+ *  if it actually changed. */
+final class PreferencesWatcher extends TimerTask implements PreferenceChangeListener, NodeChangeListener {
+
+	private final Preferences root; 
+	
+	/** Group node the listener is attached to */
+	private Preferences group; 
+	
+	/** Active configuration at the last check */
+	private String state; 
+	
+	private Timer timer; 
+	
+	private PreferencesWatcher(Preferences root) {
+		this.root = root;
+	}
+	
+	/** Starts watching the preferences. 
+	 *  @param intervalMillis interval at which the backing store is synchronized (0 = only watch 
+	 *  changes made within this JVM) */
+	static PreferencesWatcher start(int intervalMillis) {
+		PreferencesWatcher watcher = new PreferencesWatcher(Preferences.userNodeForPackage(ConsoleLoggerConfiguration.class));
+		synchronized (watcher) {
+			watcher.state = watcher.readState(); 
+		}
+		watcher.root.addPreferenceChangeListener(watcher);
+		watcher.root.addNodeChangeListener(watcher);
+		if (intervalMillis > 0) {
+			watcher.timer = new Timer("ConsoleLogger-preferences", true);
+			watcher.timer.schedule(watcher, intervalMillis, intervalMillis);
+		}
+		return watcher;
+	}
+	
+	void stop() {
+		if (timer != null) {
+			timer.cancel(); 
+		}
+		try {
+			root.removePreferenceChangeListener(this);
+			root.removeNodeChangeListener(this);
+			synchronized (this) {
+				if (group != null) {
+					group.removePreferenceChangeListener(this);
+					group = null;
+				}
+			}
+		} catch (IllegalArgumentException | IllegalStateException ex) {
+			//listener was not registered or node has been removed 
+		}
+	}
+
+	/** Reads the active configuration and (re-)attaches the listener to the selected group. */
+	private String readState() {
+		String selected = root.get(ConsoleLogger.KEY_PREFERENCES_ATTRIBUTE_SELECTED_GROUP, "");
+		Preferences node = null; 
+		try {
+			if (!selected.isEmpty() && root.nodeExists(selected)) {
+				node = root.node(selected); 
+			}
+		} catch (BackingStoreException | IllegalStateException ex) {
+			//treat as if no group is selected
+		}
+		if (node != group) {
+			try {
+				if (group != null) {
+					group.removePreferenceChangeListener(this);
+				}
+			} catch (IllegalArgumentException | IllegalStateException ex) {
+				//group has been removed 
+			}
+			if (node != null) {
+				node.addPreferenceChangeListener(this);
+			}
+			group = node; 
+		}
+		if (node == null) {
+			return selected; 
+		}
+		return selected + '\n' + node.get(ConsoleLogger.KEY_PREFERENCES_ATTRIBUTE_TEXT, "") 
+				+ '\n' + node.getBoolean(ConsoleLogger.KEY_INCLUDE_TIME, false) 
+				+ '\n' + node.getInt(ConsoleLogger.KEY_WIDTH, ConsoleLogger.DEFAULT_LOGGER_COLUMN_WIDTH);
+	}
+	
+	private void check() {
+		boolean changed; 
+		synchronized (this) {
+			String current = readState(); 
+			changed = !current.equals(state);
+			state = current; 
+		}
+		if (changed) {
+			ConsoleLogger.reloadConfiguration();
+		}
+	}
+	
+	/** Timer: synchronizes with the backing store to see changes of other processes */
+	@Override
+	public void run() {
+		try {
+			root.sync();
+		} catch (BackingStoreException | IllegalStateException ex) {
+			return; 
+		}
+		check(); 
+	}
+	
+	@Override
+	public void preferenceChange(PreferenceChangeEvent evt) {
+		check();
+	}
+
+	@Override
+	public void childAdded(NodeChangeEvent evt) {
+		check();
+	}
+
+	@Override
+	public void childRemoved(NodeChangeEvent evt) {
+		check();
+	}
+	
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+
+/** Writes log statements to {@code System.out} and {@code System.err}. The streams are 
+ *  looked up for every statement so that redirections via {@code System.setOut()} 
+ *  are respected. This is the default output. 
+ *  
+ *  {@code System.out} and {@code System.err} flush every line. If output is to be 
+ *  buffered, each stream is therefore wrapped in a stream with its own buffer, which 
+ *  only passes data on when it is flushed (or its buffer is full). */
+class PrintStreamOutput extends ConsoleOutput {
+
+	/** Size of the buffers that wrap the streams, 0 if output is not buffered */
+	private final int bufferSize; 
+	
+	private final Wrapper out = new Wrapper("sun.stdout.encoding");
+	private final Wrapper err = new Wrapper("sun.stderr.encoding");
+	
+	/** Stream that received the last statement */
+	private PrintStream last;  
+	
+	/** Buffering stream for {@code System.out} or {@code System.err} */
+	private final class Wrapper {
+		/** System property with the encoding of the console the stream writes to */
+		final String encodingProperty; 
+		PrintStream target; 
+		PrintStream buffered; 
+		
+		Wrapper(String encodingProperty) {
+			this.encodingProperty = encodingProperty; 
+		}
+		
+		PrintStream get(PrintStream current) {
+			if (current != target) {
+				if (buffered != null) {
+					buffered.flush();
+				}
+				target = current; 
+				buffered = wrap(current, encodingProperty);
+			}
+			return buffered;
+		}
+	}
+	
+	PrintStreamOutput(int bufferSize) {
+		this.bufferSize = bufferSize; 
+	}
+	
+	private PrintStream wrap(PrintStream stream, String encodingProperty) {
+		BufferedOutputStream buffer = new BufferedOutputStream(stream, bufferSize);
+		String encoding = System.getProperty(encodingProperty);
+		if (encoding != null) {
+			try {
+				return new PrintStream(buffer, false, encoding);
+			} catch (UnsupportedEncodingException ex) {
+				//use default encoding
+			}
+		}
+		return new PrintStream(buffer, false); 
+	}
+	
+	@Override
+	void write(boolean error, CharSequence line, Throwable t) {
+		PrintStream stream = error ? System.err : System.out;
+		if (bufferSize > 0) {
+			stream = (error ? err : out).get(stream); 
+		}
+		PrintStream previous = last;  
+		if (previous != stream && previous != null) {
+			previous.flush(); //keeps System.out and System.err in order
+		}
+		last = stream;
+		stream.println(line.toString());
+		if (t != null) {
+			t.printStackTrace(stream);
+		}
+	}
+
+	@Override
+	void flush() {
+		PrintStream stream = last; 
+		if (stream != null) {
+			stream.flush();
+		}
+	}
+	
+}
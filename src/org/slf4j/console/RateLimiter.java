@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.Iterator;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Limits the number of statements a logger writes per message pattern (token bucket). 
+ * 
+ *  Each message pattern (the format string, or the message itself if it has no arguments) 
+ *  has its own bucket which is refilled with <code>rate</code> tokens per second and holds 
+ *  at most <code>burst</code> tokens. Statements for which no token is available are dropped 
+ *  before they are formatted. At most once per second, and when the bucket has been idle for 
+ *  a second, the number of dropped statements is reported in a line 
+ *  <code>.. suppressed 18234 similar lines</code>. */
+final class RateLimiter {
+
+	/** Length of the window after which suppressed statements are reported */
+	private static final long WINDOW_NANOS = 1000000000L; 
+	
+	/** Maximum number of patterns with a bucket of their own, further patterns share one bucket */
+	private static final int MAX_BUCKETS = 256; 
+	
+	/** Buckets with suppressed statements that have not been reported yet */
+	private static final ConcurrentLinkedQueue<Bucket> PENDING = new ConcurrentLinkedQueue<Bucket>(); 
+	
+	private static Timer reportTimer; 
+	
+	private final class Bucket {
+		private double tokens = burst; 
+		private long refilled = System.nanoTime(); 
+		private long windowStart = refilled; 
+		private int suppressed; 
+		private int suppressedLevel; 
+		private boolean pending; 
+		
+		boolean tryAcquire(int level) {
+			long now = System.nanoTime(); 
+			int report = 0; 
+			int reportLevel = 0; 
+			boolean acquired; 
+			synchronized (this) {
+				tokens = Math.min(burst, tokens + (now-refilled) * tokensPerNano); 
+				refilled = now; 
+				acquired = tokens >= 1; 
+				if (acquired) {
+					tokens -= 1; 
+					if (suppressed > 0 && now-windowStart >= WINDOW_NANOS) {
+						report = suppressed; 
+						reportLevel = suppressedLevel; 
+						suppressed = 0;
+						windowStart = now; 
+					}
+				} else {
+					if (suppressed++ == 0) {
+						suppressedLevel = level; 
+						windowStart = now; 
+						if (!pending) {
+							pending = true; 
+							PENDING.add(this); 
+						}
+					} else {
+						suppressedLevel = Math.max(suppressedLevel, level); 
+					}
+				}
+			}
+			if (report > 0) {
+				report(report, reportLevel); 
+			}
+			return acquired; 
+		}
+		
+		/** Called by the timer: reports the suppressed statements if the window has been closed. 
+		 *  @return true if the bucket has no pending statements anymore */
+		boolean reportIfDue(long now) {
+			int report; 
+			int reportLevel; 
+			synchronized (this) {
+				if (suppressed > 0 && now-windowStart < WINDOW_NANOS) {
+					return false; 
+				}
+				report = suppressed; 
+				reportLevel = suppressedLevel; 
+				suppressed = 0; 
+				windowStart = now; 
+				pending = false; 
+			}
+			if (report > 0) {
+				report(report, reportLevel); 
+			}
+			return true; 
+		}
+	}
+	
+	private final ConsoleLogger logger; 
+	private final double burst; 
+	private final double tokensPerNano; 
+	private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>(); 
+	private final Bucket others; 
+	
+	private RateLimiter(ConsoleLogger logger, int rate, int burst) {
+		this.logger = logger; 
+		this.burst = Math.max(1, burst); 
+		this.tokensPerNano = rate / (double) WINDOW_NANOS; 
+		this.others = new Bucket(); 
+	}
+	
+	/** Returns the rate limiter for a logger, or null if its statements are not limited */
+	static RateLimiter forLogger(ConsoleLogger logger, ConsoleLoggerConfiguration config) {
+		int rate = config.getRateLimit(logger.getName()); 
+		if (rate <= 0) {
+			return null; 
+		}
+		int burst = config.getIntProperty(ConsoleLogger.KEY_RATE_LIMIT_BURST, rate); 
+		startTimer(); 
+		return new RateLimiter(logger, rate, burst); 
+	}
+	
+	/** Returns false if the statement has to be dropped */
+	boolean tryAcquire(String pattern, int level) {
+		Bucket bucket = (pattern == null) ? others : buckets.get(pattern); 
+		if (bucket == null) {
+			if (buckets.size() < MAX_BUCKETS) {
+				Bucket newBucket = new Bucket(); 
+				bucket = buckets.putIfAbsent(pattern, newBucket); 
+				if (bucket == null) {
+					bucket = newBucket; 
+				}
+			} else {
+				bucket = others; 
+			}
+		}
+		return bucket.tryAcquire(level); 
+	}
+	
+	private void report(int suppressed, int level) {
+		logger.write(level, ".. suppressed "+suppressed+(suppressed == 1 ? " similar line" : " similar lines"), null); 
+	}
+	
+	private static synchronized void startTimer() {
+		if (reportTimer != null) {
+			return; 
+		}
+		reportTimer = new Timer("ConsoleLogger-rateLimit", true); 
+		reportTimer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				long now = System.nanoTime(); 
+				for (Iterator<Bucket> it = PENDING.iterator(); it.hasNext();) {
+					if (it.next().reportIfDue(now)) {
+						it.remove(); 
+					}
+				}
+			}
+		}, 250, 250); 
+	}
+}
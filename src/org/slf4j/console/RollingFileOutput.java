@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+/** Writes log statements to a file that is rolled over when it reaches a size limit or when 
+ *  an hour or day has passed. 
+ *  
+ *  On rollover the file is renamed to <code>&lt;name&gt;.yyyyMMdd-HHmmss</code> (the time the file 
+ *  was started) and a new file is opened; nothing else is done by the thread that logs. The 
+ *  {@link LogCompressor} compresses the renamed file and deletes old files in the background. 
+ *  
+ *  Lines are encoded into a direct byte buffer that is written when it is full or flushed. 
+ *  Lines of the standard output and the error stream go to the same file. */
+class RollingFileOutput extends ConsoleOutput implements LineEncoder.Sink {
+	
+	static final int PERIOD_NONE = 0; 
+	static final int PERIOD_HOURLY = Calendar.HOUR_OF_DAY; 
+	static final int PERIOD_DAILY = Calendar.DAY_OF_MONTH; 
+	
+	private final File file; 
+	
+	/** Size after which the file is rolled over (0 = no limit) */
+	private final long maxBytes; 
+	
+	/** One of the PERIOD constants */
+	private final int period;
+	
+	private final int maxFiles; 
+	
+	private final LineEncoder encoder = new LineEncoder(Charset.defaultCharset());
+	private final String lineSeparator = System.lineSeparator();
+	private final ByteBuffer buf = ByteBuffer.allocateDirect(65536); 
+	
+	private FileChannel channel; 
+	
+	/** Bytes in the current file (not counting the buffer) */
+	private long size; 
+	
+	/** Time when the current file was started */
+	private long started; 
+	
+	/** Time of the next time-based rollover (Long.MAX_VALUE if none) */
+	private long nextRollover; 
+	
+	private boolean failed; 
+	
+	RollingFileOutput(File file, long maxBytes, int period, int maxFiles) throws IOException {
+		this.file = file; 
+		this.maxBytes = maxBytes; 
+		this.period = period; 
+		this.maxFiles = maxFiles; 
+		long now = System.currentTimeMillis(); 
+		if (file.length() > 0) { //rolled over with the next line if it belongs to an earlier period
+			open(Math.min(now, file.lastModified())); 
+		} else {
+			open(now);
+		}
+		LogCompressor.tidy(file, maxFiles); //rolled-over files of an earlier run may be uncompressed
+	}
+	
+	private void open(long now) throws IOException {
+		channel = new FileOutputStream(file, true).getChannel(); 
+		size = channel.size(); 
+		started = now; 
+		nextRollover = nextRollover(now); 
+	}
+	
+	private long nextRollover(long now) {
+		if (period == PERIOD_NONE) {
+			return Long.MAX_VALUE; 
+		}
+		Calendar cal = Calendar.getInstance();
+		cal.setTimeInMillis(now);
+		cal.set(Calendar.MILLISECOND, 0);
+		cal.set(Calendar.SECOND, 0);
+		cal.set(Calendar.MINUTE, 0);
+		if (period == PERIOD_DAILY) {
+			cal.set(Calendar.HOUR_OF_DAY, 0);
+		}
+		cal.add(period, 1);
+		return cal.getTimeInMillis(); 
+	}
+	
+	@Override
+	void write(boolean error, CharSequence line, Throwable t) {
+		if (failed) {
+			return; 
+		}
+		if ((maxBytes > 0 && size + buf.position() >= maxBytes) 
+				|| (nextRollover != Long.MAX_VALUE && System.currentTimeMillis() >= nextRollover)) {
+			rollover(); 
+		}
+		encode(line); 
+		encode(lineSeparator);
+		if (t != null) {
+			StringWriter sw = new StringWriter(); 
+			t.printStackTrace(new PrintWriter(sw));
+			encode(sw.getBuffer());
+		}
+	}
+	
+	private void encode(CharSequence cs) {
+		encoder.encode(buf, cs, this);
+	}
+	
+	/** Writes out the full buffer. */
+	@Override
+	public ByteBuffer next() {
+		writeOut(); 
+		return buf; 
+	}
+	
+	private void writeOut() {
+		buf.flip();
+		try {
+			while (!failed && buf.hasRemaining()) {
+				size += channel.write(buf);
+			}
+		} catch (IOException ex) {
+			System.err.println("Console logger can't write to the log file "+file+" ("+ex+"). "
+					+ "Further log statements are discarded.");
+			failed = true; 
+		}
+		buf.clear(); 
+	}
+	
+	/** Renames the current file and opens a new one. */
+	private void rollover() {
+		writeOut(); 
+		long now = System.currentTimeMillis(); 
+		try {
+			channel.close(); 
+		} catch (IOException ex) {
+			//the file is renamed anyway
+		}
+		boolean renamed = file.renameTo(rolledFile()); 
+		if (!renamed) {
+			System.err.println("Console logger can't roll over the log file "+file+". Continuing with the same file.");
+		}
+		try {
+			open(now); 
+			if (!renamed) {
+				size = 0; //tries again when the size limit is reached once more
+			}
+		} catch (IOException ex) {
+			System.err.println("Console logger can't open the log file "+file+" ("+ex+"). "
+					+ "Further log statements are discarded.");
+			failed = true; 
+			return; 
+		}
+		LogCompressor.tidy(file, maxFiles); 
+	}
+	
+	/** Name for the current file after rollover that is not in use yet */
+	private File rolledFile() {
+		String base = file.getPath()+"."+new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(started)); 
+		File rolled = new File(base); 
+		for (int i=1;rolled.exists() || new File(rolled.getPath()+".gz").exists();i++) {
+			rolled = new File(base+"-"+i);
+		}
+		return rolled; 
+	}
+	
+	@Override
+	void flush() {
+		if (!failed && buf.position() > 0) {
+			writeOut(); 
+		}
+	}
+	
+}
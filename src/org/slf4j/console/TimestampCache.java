@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/** Renders time stamps in the format <code>HH:mm:ss.SSS </code> (followed by a space). 
+ *  
+ *  The rendered characters are kept and reused as long as the millisecond does not 
+ *  change. When a new millisecond or second starts within the same minute, only the 
+ *  digits of the seconds and milliseconds are patched. The time zone is consulted 
+ *  once per minute. 
+ *  
+ *  Instances are not thread-safe. */
+final class TimestampCache {
+
+	static final int LENGTH = 13; 
+	
+	private final char[] chars = "00:00:00.000 ".toCharArray(); 
+	
+	private long lastMillis = Long.MIN_VALUE;
+	
+	/** Time at which the second currently shown in {@link #chars} started */
+	private long secondStart = Long.MIN_VALUE; 
+	
+	/** Time range of the hour and minute currently shown in {@link #chars} */
+	private long minuteStart = Long.MIN_VALUE;
+	private long minuteEnd = Long.MIN_VALUE;
+	
+	/** Appends the time stamp for the given time (milliseconds since the epoch) */
+	void append(StringBuilder sb, long millis) {
+		if (millis != lastMillis) {
+			update(millis);
+		}
+		sb.append(chars, 0, LENGTH);
+	}
+	
+	private void update(long millis) {
+		lastMillis = millis; 
+		if (millis >= minuteStart && millis < minuteEnd) {
+			int sinceMinute = (int) (millis - minuteStart); 
+			if (millis - secondStart >= 1000 || millis < secondStart) {
+				int second = sinceMinute / 1000;
+				put2(6, second);
+				secondStart = minuteStart + second * 1000;
+			}
+			put3(9, sinceMinute % 1000);
+		} else {
+			LocalTime time = LocalTime.from(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+			int milli = time.getNano() / 1000000;
+			put2(0, time.getHour());
+			put2(3, time.getMinute());
+			put2(6, time.getSecond());
+			put3(9, milli); 
+			secondStart = millis - milli;
+			minuteStart = secondStart - time.getSecond() * 1000;
+			minuteEnd = minuteStart + 60000; 
+		}
+	}
+	
+	private void put2(int pos, int value) {
+		chars[pos] = (char) ('0' + value / 10); 
+		chars[pos+1] = (char) ('0' + value % 10);
+	}
+	
+	private void put3(int pos, int value) {
+		chars[pos] = (char) ('0' + value / 100); 
+		chars[pos+1] = (char) ('0' + (value / 10) % 10);
+		chars[pos+2] = (char) ('0' + value % 10);
+	}
+	
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+/** Formats the arguments of log statements of a certain type, e.g. to keep the output of 
+ *  domain objects short. 
+ *  
+ *  A formatter is used for its type, for subclasses of it and, if the type is an interface, 
+ *  for all classes implementing it. If several formatters apply, the one registered for the 
+ *  class itself wins, then the one for the nearest superclass, then the one for an interface.  
+ *  
+ *  Formatters are registered with {@link StringConversionHelper#register(TypeFormatter)} or 
+ *  listed in a file <code>META-INF/services/org.slf4j.console.TypeFormatter</code>, which makes 
+ *  them available as soon as the jar file is on the classpath. Formatters are called by several 
+ *  threads at the same time and must not log themselves.  
+ *  
+ *  @param <T> type of the values formatted */
+public interface TypeFormatter<T> {
+
+	/** Returns the class or interface of the values this formatter is used for */
+	Class<T> getType(); 
+	
+	/** Appends a representation of the value (which is never null) to the buffer */
+	void format(StringBuilder sbuf, T value); 
+	
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2017 alexander233
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package org.slf4j.console;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/** Finds the {@link TypeFormatter} for the class of an argument. 
+ * 
+ *  The formatter is determined once per class and cached in a {@link ClassValue}, so that 
+ *  formatting an argument does not need any lookups by name. Registering a formatter discards 
+ *  the cache. 
+ *  
+ *  Built-in formatters of {@link StringConversionHelper} only apply to their exact class (a 
+ *  subclass of e.g. Date may override toString()), registered formatters also to subclasses and 
+ *  implementations. */
+final class TypeFormatterRegistry {
+
+	/** Used for all classes without a formatter */
+	private static final TypeFormatter<Object> TO_STRING = new TypeFormatter<Object>() {
+		public Class<Object> getType() {
+			return Object.class;
+		}
+		public void format(StringBuilder sbuf, Object value) {
+			sbuf.append(value.toString()); 
+		}
+	};
+	
+	private static final Map<Class<?>, TypeFormatter<?>> builtIn = new HashMap<Class<?>, TypeFormatter<?>>(); 
+	
+	/** Registered formatters (copied on write) */
+	private static volatile Map<Class<?>, TypeFormatter<?>> registered = new HashMap<Class<?>, TypeFormatter<?>>(); 
+	
+	private static volatile ClassValue<TypeFormatter<Object>> cache = newCache(); 
+	
+	/** Set once the built-in formatters and the providers have been registered */
+	private static volatile boolean providersLoaded; 
+	
+	/** Set while the providers are loaded (guarded by the class lock): a formatter that is loaded and 
+	 *  logs must not load them recursively */
+	private static boolean loading; 
+	
+	private TypeFormatterRegistry() {
+	}
+	
+	static void registerBuiltIn(TypeFormatter<?> formatter) {
+		synchronized (builtIn) {
+			builtIn.put(formatter.getType(), formatter); 
+		}
+	}
+	
+	static synchronized void register(TypeFormatter<?> formatter) {
+		Map<Class<?>, TypeFormatter<?>> map = new HashMap<Class<?>, TypeFormatter<?>>(registered); 
+		map.put(formatter.getType(), formatter); 
+		registered = map; 
+		cache = newCache(); 
+	}
+	
+	/** Returns the formatter for a class */
+	static TypeFormatter<Object> forClass(Class<?> c) {
+		if (!providersLoaded) {
+			loadProviders(); 
+		}
+		return cache.get(c); 
+	}
+	
+	/** Returns true if a formatter other than toString() applies to the class */
+	static boolean hasFormatter(Class<?> c) {
+		return forClass(c) != TO_STRING; 
+	}
+	
+	/** Returns true if the built-in formatter applies to the class (no formatter has been registered for it) */
+	static boolean isBuiltIn(Class<?> c) {
+		return forClass(c) == builtIn.get(c); 
+	}
+	
+	/** Registers the built-in formatters and the formatters listed in META-INF/services/org.slf4j.console.TypeFormatter */
+	private static synchronized void loadProviders() {
+		if (providersLoaded || loading) {
+			return; 
+		}
+		loading = true; 
+		try {
+			StringConversionHelper.registerBuiltIns(); 
+			cache = newCache(); //classes looked up while registering may have been resolved without them 
+			//the loader can only be typed with the raw class, the cast to TypeFormatter<?> is checked 
+			Iterator<?> it = ServiceLoader.load(TypeFormatter.class, TypeFormatterRegistry.class.getClassLoader()).iterator(); 
+			while (it.hasNext()) {
+				try {
+					register((TypeFormatter<?>) it.next()); 
+				} catch (ServiceConfigurationError ex) {
+					System.err.println("Console logger type formatter could not be loaded ("+ex.getMessage()+"). It will be ignored.");
+				}
+			}
+		} catch (ServiceConfigurationError ex) {
+			System.err.println("Console logger type formatters could not be loaded ("+ex.getMessage()+"). Using built-in formatters only.");
+		} finally {
+			loading = false; 
+			providersLoaded = true; //set last: other threads wait for the lock until all formatters are registered 
+		}
+	}
+	
+	private static ClassValue<TypeFormatter<Object>> newCache() {
+		return new ClassValue<TypeFormatter<Object>>() {
+			@Override
+			protected TypeFormatter<Object> computeValue(Class<?> type) {
+				return resolve(type); 
+			}
+		}; 
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static TypeFormatter<Object> resolve(Class<?> c) {
+		Map<Class<?>, TypeFormatter<?>> registered = TypeFormatterRegistry.registered; 
+		TypeFormatter<?> formatter = registered.get(c); 
+		if (formatter == null) {
+			synchronized (builtIn) {
+				formatter = builtIn.get(c); 
+			}
+		}
+		for (Class<?> s = c.getSuperclass(); formatter == null && s != null && s != Object.class; s = s.getSuperclass()) {
+			formatter = registered.get(s); 
+		}
+		if (formatter == null) {
+			formatter = findInterface(c, registered); 
+		}
+		if (formatter == null) {
+			formatter = registered.get(Object.class); 
+		}
+		return formatter == null ? TO_STRING : (TypeFormatter<Object>) formatter; 
+	}
+	
+	/** Breadth first search of the interfaces of a class and its superclasses */
+	private static TypeFormatter<?> findInterface(Class<?> c, Map<Class<?>, TypeFormatter<?>> registered) {
+		ArrayDeque<Class<?>> queue = new ArrayDeque<Class<?>>(); 
+		Set<Class<?>> seen = new HashSet<Class<?>>(); 
+		for (Class<?> s = c; s != null; s = s.getSuperclass()) {
+			queue.add(s); 
+		}
+		while (!queue.isEmpty()) {
+			Class<?> next = queue.poll(); 
+			for (Class<?> i : next.getInterfaces()) {
+				if (seen.add(i)) {
+					TypeFormatter<?> formatter = registered.get(i); 
+					if (formatter != null) {
+						return formatter; 
+					}
+					queue.add(i); 
+				}
+			}
+		}
+		return null; 
+	}
+}